@@ -1,9 +1,31 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class AVL<T extends Comparable<T>> {
+public class AVL<T extends Comparable<T>> implements Iterable<T> {
+
+    // Subtrees with fewer nodes than this are combined on the current thread.
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private static final int UNION = 0;
+    private static final int INTERSECTION = 1;
+    private static final int DIFFERENCE = 2;
 
     private Node<T> root;
 
+    // Scratch stack of the nodes visited by insert and delete, deepest last.
+    private Node<T>[] path;
+
+    // Number of insertions and deletions so far; iterators fail fast when it changes under them.
+    private int modCount;
+
     public Node<T> getRoot() {
         return this.root;
     }
@@ -12,135 +34,534 @@ public class AVL<T extends Comparable<T>> {
         return height(this.root);
     }
 
+    public int size() {
+        return size(this.root);
+    }
+
     public boolean contains(T item) {
         Node<T> node = this.search(this.root, item);
         return node != null;
     }
 
     public void insert(T item) {
-        this.root = this.insert(this.root, item);
+        Node<T>[] path = this.path();
+        int depth = 0;
+        int cmp = 0;
+
+        Node<T> node = this.root;
+        while (node != null) {
+            cmp = item.compareTo(node.value);
+            if (cmp == 0) {
+                Arrays.fill(path, 0, depth, null);
+                return;
+            }
+
+            path[depth++] = node;
+            node = cmp < 0 ? node.left : node.right;
+        }
+
+        this.modCount++;
+
+        if (depth == 0) {
+            this.root = new Node<>(item);
+            return;
+        }
+
+        if (cmp < 0) {
+            path[depth - 1].left = new Node<>(item);
+        } else {
+            path[depth - 1].right = new Node<>(item);
+        }
+
+        this.retrace(path, depth);
     }
 
     public void eachInOrder(Consumer<T> consumer) {
         this.eachInOrder(this.root, consumer);
     }
 
-    public void delete(T item) {
+    @Override
+    public Iterator<T> iterator() {
+        return Spliterators.iterator(this.spliterator());
+    }
 
-        this.root = this.delete(this.root, item);
+    @Override
+    public Spliterator<T> spliterator() {
+        return new InOrderSpliterator<>(this.root, n -> n.left, n -> n.right, n -> n.value, n -> n.size,
+                () -> this.modCount);
+    }
 
+    public Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
     }
 
-    private Node<T> delete(Node<T> node, T item) {
+    // Number of items smaller than item; item itself need not be in the tree.
+    public int rank(T item) {
+        int rank = 0;
+
+        Node<T> node = this.root;
+        while (node != null) {
+            int cmp = item.compareTo(node.value);
+            if (cmp <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
 
-        if (node == null) {
-            return null;
+        return rank;
+    }
+
+    // The item with exactly index smaller items, i.e. the inverse of rank.
+    public T select(int index) {
+        if (index < 0 || index >= this.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
         }
 
-        int cmp = item.compareTo(node.value);
-        if (cmp < 0) {
-            node.left = this.delete(node.left, item);
-        } else if (cmp > 0) {
-            node.right = this.delete(node.right, item);
-        } else {
-            //delete
+        Node<T> node = this.root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    // Number of items between lo and hi, both inclusive.
+    public int countInRange(T lo, T hi) {
+        if (lo.compareTo(hi) > 0) {
+            return 0;
+        }
+
+        int count = this.rank(hi) - this.rank(lo);
+        return this.contains(hi) ? count + 1 : count;
+    }
 
-            if (node.left == null) {
-                return node.right;
+    // Greatest item less than or equal to item, or null if there is none.
+    public T floor(T item) {
+        T floor = null;
+
+        Node<T> node = this.root;
+        while (node != null) {
+            int cmp = item.compareTo(node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                floor = node.value;
+                node = node.right;
+            } else {
+                return node.value;
             }
+        }
+
+        return floor;
+    }
 
-            if (node.right == null) {
-                return node.left;
+    // Smallest item greater than or equal to item, or null if there is none.
+    public T ceiling(T item) {
+        T ceiling = null;
+
+        Node<T> node = this.root;
+        while (node != null) {
+            int cmp = item.compareTo(node.value);
+            if (cmp < 0) {
+                ceiling = node.value;
+                node = node.left;
+            } else if (cmp > 0) {
+                node = node.right;
+            } else {
+                return node.value;
             }
+        }
 
-            Node<T> rightMin = new Node<>(this.getMin(node.right));
+        return ceiling;
+    }
 
-            rightMin.right = this.deleteMin(node.right);
-            rightMin.left = node.left;
+    // Passes the items between lo and hi (both inclusive) to consumer in order, skipping subtrees that lie
+    // entirely outside the range.
+    public void range(T lo, T hi, Consumer<T> consumer) {
+        this.range(this.root, lo, hi, consumer);
+    }
 
-            node = rightMin;
+    // Builds a perfectly balanced tree from items, which must be in strictly ascending order.
+    public static <T extends Comparable<T>> AVL<T> fromSorted(List<T> items) {
+        T previous = null;
+        for (T item : items) {
+            if (previous != null && previous.compareTo(item) >= 0) {
+                throw new IllegalArgumentException("Items are not in strictly ascending order");
+            }
+            previous = item;
         }
 
-        updateHeight(node);
-        return balance(node);
+        AVL<T> avl = new AVL<>();
+        avl.root = avl.build(items.iterator(), items.size());
+        return avl;
     }
 
+    // The set operations below leave both trees unchanged and return a new one. They copy the inputs and then
+    // take the copies apart with split and put them back together with join, so each level of recursion works
+    // on disjoint subtrees. The overloads taking a pool run those halves in parallel.
+
+    public AVL<T> union(AVL<T> other) {
+        return this.combine(other, UNION, null);
+    }
+
+    public AVL<T> union(AVL<T> other, ForkJoinPool pool) {
+        return this.combine(other, UNION, pool);
+    }
+
+    public AVL<T> intersection(AVL<T> other) {
+        return this.combine(other, INTERSECTION, null);
+    }
+
+    public AVL<T> intersection(AVL<T> other, ForkJoinPool pool) {
+        return this.combine(other, INTERSECTION, pool);
+    }
+
+    // Items of this tree that are not in other.
+    public AVL<T> difference(AVL<T> other) {
+        return this.combine(other, DIFFERENCE, null);
+    }
+
+    public AVL<T> difference(AVL<T> other, ForkJoinPool pool) {
+        return this.combine(other, DIFFERENCE, pool);
+    }
+
+    public void delete(T item) {
+        Node<T>[] path = this.path();
+        int depth = 0;
+
+        Node<T> node = this.root;
+        while (node != null) {
+            int cmp = item.compareTo(node.value);
+            if (cmp == 0) {
+                break;
+            }
+
+            path[depth++] = node;
+            node = cmp < 0 ? node.left : node.right;
+        }
 
-    private T getMin(Node<T> node) {
         if (node == null) {
-            return null;
+            Arrays.fill(path, 0, depth, null);
+            return;
+        }
+
+        this.modCount++;
+        Node<T> parent = depth == 0 ? null : path[depth - 1];
+
+        if (node.left == null || node.right == null) {
+            this.replaceChild(parent, node, node.left != null ? node.left : node.right);
+            this.retrace(path, depth);
+            return;
         }
 
-        if (node.left == null) {
-            return node.value;
+        // The successor (minimum of the right subtree) is relinked into the deleted node's place and takes
+        // over its height, so the retrace below sees the position as unchanged until proven otherwise.
+        int nodeDepth = depth++;
+        Node<T> successor = node.right;
+        while (successor.left != null) {
+            path[depth++] = successor;
+            successor = successor.left;
         }
 
-        return getMin(node.left);
+        if (successor != node.right) {
+            path[depth - 1].left = successor.right;
+            successor.right = node.right;
+        }
+        successor.left = node.left;
+        successor.height = node.height;
+
+        this.replaceChild(parent, node, successor);
+        path[nodeDepth] = successor;
+
+        this.retrace(path, depth);
     }
 
-    private Node<T> deleteMin(Node<T> node) {
+    public void deleteMin() {
+        Node<T>[] path = this.path();
+        int depth = 0;
+
+        Node<T> node = this.root;
         if (node == null) {
-            return null;
+            return;
         }
 
-        if (node.left == null) {
-            return node.right;
+        this.modCount++;
+
+        while (node.left != null) {
+            path[depth++] = node;
+            node = node.left;
+        }
+
+        this.replaceChild(depth == 0 ? null : path[depth - 1], node, node.right);
+        this.retrace(path, depth);
+    }
+
+    public void deleteMax() {
+        Node<T>[] path = this.path();
+        int depth = 0;
+
+        Node<T> node = this.root;
+        if (node == null) {
+            return;
         }
 
-        node.left = deleteMin(node.left);
+        this.modCount++;
 
-        updateHeight(node);
-        return balance(node);
+        while (node.right != null) {
+            path[depth++] = node;
+            node = node.right;
+        }
+
+        this.replaceChild(depth == 0 ? null : path[depth - 1], node, node.left);
+        this.retrace(path, depth);
     }
 
-    public void deleteMin() {
-        this.root = this.deleteMin(root);
+    // Walks the recorded path bottom-up, fixing heights and rotating where needed. Once a subtree keeps the
+    // height it had before the change and needs no rotation, nothing above it can change either.
+    // Subtree sizes still change all the way up, so the nodes above that point only get their size fixed.
+    // Clears the path afterwards, so the reused array does not keep removed nodes reachable.
+    private void retrace(Node<T>[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            Node<T> node = path[i];
+            int previousHeight = node.height;
+
+            this.updateHeight(node);
+            this.updateSize(node);
+            Node<T> balanced = this.balance(node);
+
+            if (balanced != node) {
+                this.replaceChild(i == 0 ? null : path[i - 1], node, balanced);
+            }
+
+            if (balanced.height == previousHeight) {
+                for (int j = i - 1; j >= 0; j--) {
+                    this.updateSize(path[j]);
+                }
+                break;
+            }
+        }
+
+        Arrays.fill(path, 0, depth, null);
     }
 
-    public void deleteMax() {
-        this.root = this.deleteMax(this.root);
+    private Node<T> build(Iterator<T> items, int count) {
+        if (count == 0) {
+            return null;
+        }
+
+        int leftCount = (count - 1) / 2;
+        Node<T> left = this.build(items, leftCount);
+        Node<T> node = new Node<>(items.next());
+        node.left = left;
+        node.right = this.build(items, count - 1 - leftCount);
+
+        this.updateHeight(node);
+        this.updateSize(node);
+        return node;
+    }
+
+    private AVL<T> combine(AVL<T> other, int operation, ForkJoinPool pool) {
+        Node<T> first = this.root;
+        Node<T> second = other.root;
+
+        AVL<T> result = new AVL<>();
+        if (pool == null) {
+            result.root = this.combine(this.copy(first, false), this.copy(second, false), operation, false);
+        } else {
+            result.root = pool.invoke(ForkJoinTask.adapt(() ->
+                    this.combine(this.copy(first, true), this.copy(second, true), operation, true)));
+        }
+        return result;
+    }
+
+    // Destroys both first and second, reusing their nodes for the result.
+    private Node<T> combine(Node<T> first, Node<T> second, int operation, boolean parallel) {
+        if (first == null) {
+            return operation == UNION ? second : null;
+        }
+        if (second == null) {
+            return operation == INTERSECTION ? null : first;
+        }
+
+        // Union and intersection split second around the root of first; difference has to keep every item
+        // of first, so it splits first around the root of second instead.
+        Node<T> pivot = operation == DIFFERENCE ? second : first;
+        Split<T> split = this.split(operation == DIFFERENCE ? first : second, pivot.value);
+        Node<T> leftFirst = operation == DIFFERENCE ? split.left : first.left;
+        Node<T> leftSecond = operation == DIFFERENCE ? second.left : split.left;
+        Node<T> rightFirst = operation == DIFFERENCE ? split.right : first.right;
+        Node<T> rightSecond = operation == DIFFERENCE ? second.right : split.right;
+
+        Node<T> left;
+        Node<T> right;
+        if (parallel && size(first) + size(second) >= PARALLEL_THRESHOLD) {
+            ForkJoinTask<Node<T>> leftTask = ForkJoinTask.adapt(() ->
+                    this.combine(leftFirst, leftSecond, operation, true)).fork();
+            right = this.combine(rightFirst, rightSecond, operation, true);
+            left = leftTask.join();
+        } else {
+            left = this.combine(leftFirst, leftSecond, operation, false);
+            right = this.combine(rightFirst, rightSecond, operation, false);
+        }
+
+        if (operation == UNION || (operation == INTERSECTION && split.match != null)) {
+            return this.join(left, pivot, right);
+        }
+        return this.join(left, right);
     }
 
-    private Node<T> deleteMax(Node<T> node) {
+    // Splits the tree rooted at node into the items smaller and greater than value, and the node holding value
+    // itself if there is one.
+    private Split<T> split(Node<T> node, T value) {
         if (node == null) {
-            return null;
+            return new Split<>();
+        }
+
+        int cmp = value.compareTo(node.value);
+        if (cmp == 0) {
+            Split<T> split = new Split<>();
+            split.left = node.left;
+            split.match = node;
+            split.right = node.right;
+            return split;
+        }
+
+        if (cmp < 0) {
+            Split<T> split = this.split(node.left, value);
+            split.right = this.join(split.right, node, node.right);
+            return split;
+        }
+
+        Split<T> split = this.split(node.right, value);
+        split.left = this.join(node.left, node, split.left);
+        return split;
+    }
+
+    // Joins two trees and a middle node, where every item of left is smaller than middle and every item of
+    // right is greater. It descends the taller tree to a subtree of about the other's height, so the cost is
+    // proportional to the difference in heights.
+    private Node<T> join(Node<T> left, Node<T> middle, Node<T> right) {
+        if (this.height(left) > this.height(right) + 1) {
+            left.right = this.join(left.right, middle, right);
+            this.updateHeight(left);
+            this.updateSize(left);
+            return this.balance(left);
+        }
+
+        if (this.height(right) > this.height(left) + 1) {
+            right.left = this.join(left, middle, right.left);
+            this.updateHeight(right);
+            this.updateSize(right);
+            return this.balance(right);
+        }
+
+        middle.left = left;
+        middle.right = right;
+        this.updateHeight(middle);
+        this.updateSize(middle);
+        return middle;
+    }
+
+    // Same as above with the maximum of left as the middle node.
+    private Node<T> join(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
         }
 
+        Node<T> max = left;
+        while (max.right != null) {
+            max = max.right;
+        }
+
+        return this.join(this.detachMax(left), max, right);
+    }
+
+    private Node<T> detachMax(Node<T> node) {
         if (node.right == null) {
             return node.left;
         }
 
-        node.right = this.deleteMax(node.right);
+        node.right = this.detachMax(node.right);
+        this.updateHeight(node);
+        this.updateSize(node);
+        return this.balance(node);
+    }
 
-        updateHeight(node);
-        return balance(node);
+    private Node<T> copy(Node<T> node, boolean parallel) {
+        if (node == null) {
+            return null;
+        }
+
+        Node<T> copy = new Node<>(node.value);
+        copy.height = node.height;
+        copy.size = node.size;
+
+        if (parallel && node.size >= PARALLEL_THRESHOLD) {
+            ForkJoinTask<Node<T>> leftTask = ForkJoinTask.adapt(() -> this.copy(node.left, true)).fork();
+            copy.right = this.copy(node.right, true);
+            copy.left = leftTask.join();
+        } else {
+            copy.left = this.copy(node.left, false);
+            copy.right = this.copy(node.right, false);
+        }
+        return copy;
     }
 
-    private void eachInOrder(Node<T> node, Consumer<T> action) {
+    private void range(Node<T> node, T lo, T hi, Consumer<T> consumer) {
         if (node == null) {
             return;
         }
 
-        this.eachInOrder(node.left, action);
-        action.accept(node.value);
-        this.eachInOrder(node.right, action);
+        boolean aboveLo = lo.compareTo(node.value) <= 0;
+        boolean belowHi = hi.compareTo(node.value) >= 0;
+
+        if (aboveLo) {
+            this.range(node.left, lo, hi, consumer);
+        }
+        if (aboveLo && belowHi) {
+            consumer.accept(node.value);
+        }
+        if (belowHi) {
+            this.range(node.right, lo, hi, consumer);
+        }
     }
 
-    private Node<T> insert(Node<T> node, T item) {
-        if (node == null) {
-            return new Node<>(item);
+    private void replaceChild(Node<T> parent, Node<T> child, Node<T> replacement) {
+        if (parent == null) {
+            this.root = replacement;
+        } else if (parent.left == child) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
         }
+    }
 
-        int cmp = item.compareTo(node.value);
-        if (cmp < 0) {
-            node.left = this.insert(node.left, item);
-        } else if (cmp > 0) {
-            node.right = this.insert(node.right, item);
+    // Ancestors of any position fit in root height slots; the array is reused until the tree outgrows it.
+    @SuppressWarnings("unchecked")
+    private Node<T>[] path() {
+        int required = this.height(this.root) + 1;
+        if (this.path == null || this.path.length < required) {
+            this.path = (Node<T>[]) new Node<?>[Math.max(required, 2 * this.height(this.root))];
         }
+        return this.path;
+    }
 
-        this.updateHeight(node);
+    private void eachInOrder(Node<T> node, Consumer<T> action) {
+        if (node == null) {
+            return;
+        }
 
-        return balance(node);
+        this.eachInOrder(node.left, action);
+        action.accept(node.value);
+        this.eachInOrder(node.right, action);
     }
 
     private Node<T> rotateLeft(Node<T> node) {
@@ -149,7 +570,9 @@ public class AVL<T extends Comparable<T>> {
         right.left = node;
 
         this.updateHeight(node);
+        this.updateSize(node);
         this.updateHeight(right);
+        this.updateSize(right);
 
         return right;
     }
@@ -160,7 +583,9 @@ public class AVL<T extends Comparable<T>> {
         left.right = node;
 
         this.updateHeight(node);
+        this.updateSize(node);
         this.updateHeight(left);
+        this.updateSize(left);
 
         return left;
     }
@@ -178,7 +603,7 @@ public class AVL<T extends Comparable<T>> {
         } else if (balance > 1) {
             int childBalance = this.balanceFactor(node.left);
             if (childBalance < 0) {
-                node.left = this.rotateRight(node.left);
+                node.left = this.rotateLeft(node.left);
             }
             return this.rotateRight(node);
         }
@@ -187,18 +612,18 @@ public class AVL<T extends Comparable<T>> {
     }
 
     private Node<T> search(Node<T> node, T item) {
-        if (node == null) {
-            return null;
-        }
-
-        int cmp = item.compareTo(node.value);
-        if (cmp < 0) {
-            return search(node.left, item);
-        } else if (cmp > 0) {
-            return search(node.right, item);
+        while (node != null) {
+            int cmp = item.compareTo(node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                node = node.right;
+            } else {
+                return node;
+            }
         }
 
-        return node;
+        return null;
     }
 
     private int balanceFactor(Node<T> node) {
@@ -215,4 +640,21 @@ public class AVL<T extends Comparable<T>> {
     private void updateHeight(Node<T> node) {
         node.height = Math.max(this.height(node.left), this.height(node.right)) + 1;
     }
+
+    private int size(Node<T> node) {
+        if (node == null) {
+            return 0;
+        }
+        return node.size;
+    }
+
+    private void updateSize(Node<T> node) {
+        node.size = this.size(node.left) + this.size(node.right) + 1;
+    }
+
+    private static class Split<T extends Comparable<T>> {
+        private Node<T> left;
+        private Node<T> match;
+        private Node<T> right;
+    }
 }
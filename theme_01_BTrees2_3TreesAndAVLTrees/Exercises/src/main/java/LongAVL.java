@@ -0,0 +1,261 @@
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// AVL tree of distinct long keys, laid out like IntAVL: nodes are int indices into parallel arrays and only the
+// key array holds longs.
+public class LongAVL {
+
+    private static final int NIL = 0;
+    // An AVL tree of height 46 already needs more than 2^31 nodes.
+    private static final int MAX_HEIGHT = 46;
+
+    private long[] keys;
+    private int[] left;
+    private int[] right;
+    private int[] height;
+
+    private int root;
+    private int size;
+    // Head of the free list of deleted nodes, and the first index that has never been used.
+    private int free;
+    private int next;
+
+    // Scratch stack of the nodes visited by insert and delete, deepest last.
+    private final int[] path;
+
+    public LongAVL() {
+        this(16);
+    }
+
+    public LongAVL(int initialCapacity) {
+        this.keys = new long[initialCapacity + 1];
+        this.left = new int[initialCapacity + 1];
+        this.right = new int[initialCapacity + 1];
+        this.height = new int[initialCapacity + 1];
+        this.next = 1;
+        this.path = new int[MAX_HEIGHT];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int height() {
+        return this.height[this.root];
+    }
+
+    public boolean contains(long key) {
+        int node = this.root;
+        while (node != NIL) {
+            if (key < this.keys[node]) {
+                node = this.left[node];
+            } else if (key > this.keys[node]) {
+                node = this.right[node];
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // Returns false if key was already present.
+    public boolean insert(long key) {
+        int depth = 0;
+
+        int node = this.root;
+        while (node != NIL) {
+            if (key == this.keys[node]) {
+                return false;
+            }
+
+            this.path[depth++] = node;
+            node = key < this.keys[node] ? this.left[node] : this.right[node];
+        }
+
+        int created = this.allocate(key);
+        this.size++;
+
+        if (depth == 0) {
+            this.root = created;
+            return true;
+        }
+
+        int parent = this.path[depth - 1];
+        if (key < this.keys[parent]) {
+            this.left[parent] = created;
+        } else {
+            this.right[parent] = created;
+        }
+
+        this.retrace(depth);
+        return true;
+    }
+
+    // Returns false if key was not present.
+    public boolean delete(long key) {
+        int depth = 0;
+
+        int node = this.root;
+        while (node != NIL && key != this.keys[node]) {
+            this.path[depth++] = node;
+            node = key < this.keys[node] ? this.left[node] : this.right[node];
+        }
+
+        if (node == NIL) {
+            return false;
+        }
+
+        int parent = depth == 0 ? NIL : this.path[depth - 1];
+
+        if (this.left[node] == NIL || this.right[node] == NIL) {
+            this.replaceChild(parent, node, this.left[node] != NIL ? this.left[node] : this.right[node]);
+        } else {
+            // Same successor relinking as AVL.delete.
+            int nodeDepth = depth++;
+            int successor = this.right[node];
+            while (this.left[successor] != NIL) {
+                this.path[depth++] = successor;
+                successor = this.left[successor];
+            }
+
+            if (successor != this.right[node]) {
+                this.left[this.path[depth - 1]] = this.right[successor];
+                this.right[successor] = this.right[node];
+            }
+            this.left[successor] = this.left[node];
+            this.height[successor] = this.height[node];
+
+            this.replaceChild(parent, node, successor);
+            this.path[nodeDepth] = successor;
+        }
+
+        this.release(node);
+        this.size--;
+
+        this.retrace(depth);
+        return true;
+    }
+
+    public void eachInOrder(LongConsumer consumer) {
+        this.eachInOrder(this.root, consumer);
+    }
+
+    private void eachInOrder(int node, LongConsumer consumer) {
+        if (node == NIL) {
+            return;
+        }
+
+        this.eachInOrder(this.left[node], consumer);
+        consumer.accept(this.keys[node]);
+        this.eachInOrder(this.right[node], consumer);
+    }
+
+    private int allocate(long key) {
+        int node;
+        if (this.free != NIL) {
+            node = this.free;
+            this.free = this.left[node];
+        } else {
+            if (this.next == this.keys.length) {
+                this.grow();
+            }
+            node = this.next++;
+        }
+
+        this.keys[node] = key;
+        this.left[node] = NIL;
+        this.right[node] = NIL;
+        this.height[node] = 1;
+        return node;
+    }
+
+    private void release(int node) {
+        this.left[node] = this.free;
+        this.free = node;
+    }
+
+    private void grow() {
+        int capacity = this.keys.length * 2;
+        this.keys = Arrays.copyOf(this.keys, capacity);
+        this.left = Arrays.copyOf(this.left, capacity);
+        this.right = Arrays.copyOf(this.right, capacity);
+        this.height = Arrays.copyOf(this.height, capacity);
+    }
+
+    private void retrace(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            int node = this.path[i];
+            int previousHeight = this.height[node];
+
+            this.updateHeight(node);
+            int balanced = this.balance(node);
+
+            if (balanced != node) {
+                this.replaceChild(i == 0 ? NIL : this.path[i - 1], node, balanced);
+            }
+
+            if (this.height[balanced] == previousHeight) {
+                return;
+            }
+        }
+    }
+
+    private void replaceChild(int parent, int child, int replacement) {
+        if (parent == NIL) {
+            this.root = replacement;
+        } else if (this.left[parent] == child) {
+            this.left[parent] = replacement;
+        } else {
+            this.right[parent] = replacement;
+        }
+    }
+
+    private int rotateLeft(int node) {
+        int right = this.right[node];
+        this.right[node] = this.left[right];
+        this.left[right] = node;
+
+        this.updateHeight(node);
+        this.updateHeight(right);
+
+        return right;
+    }
+
+    private int rotateRight(int node) {
+        int left = this.left[node];
+        this.left[node] = this.right[left];
+        this.right[left] = node;
+
+        this.updateHeight(node);
+        this.updateHeight(left);
+
+        return left;
+    }
+
+    private int balance(int node) {
+        int balance = this.balanceFactor(node);
+
+        if (balance < -1) {
+            if (this.balanceFactor(this.right[node]) > 0) {
+                this.right[node] = this.rotateRight(this.right[node]);
+            }
+            return this.rotateLeft(node);
+        } else if (balance > 1) {
+            if (this.balanceFactor(this.left[node]) < 0) {
+                this.left[node] = this.rotateLeft(this.left[node]);
+            }
+            return this.rotateRight(node);
+        }
+
+        return node;
+    }
+
+    private int balanceFactor(int node) {
+        return this.height[this.left[node]] - this.height[this.right[node]];
+    }
+
+    private void updateHeight(int node) {
+        this.height[node] = Math.max(this.height[this.left[node]], this.height[this.right[node]]) + 1;
+    }
+}
@@ -5,10 +5,13 @@ public class Node<T extends Comparable<T>> {
     public Node<T> right;
 
     public int height;
+    // Number of nodes in the subtree rooted here, including this one.
+    public int size;
 
     public Node(T value) {
         this.value = value;
         this.height = 1;
+        this.size = 1;
     }
 
 }
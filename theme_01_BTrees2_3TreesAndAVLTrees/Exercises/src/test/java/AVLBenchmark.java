@@ -0,0 +1,98 @@
+import java.util.Random;
+import java.util.TreeSet;
+
+public class AVLBenchmark {
+
+    private static final int KEYS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int[] keys = new int[KEYS];
+        Random random = new Random(42);
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = random.nextInt();
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d, %,d random keys%n", round, KEYS);
+
+            IntAVL intAVL = new IntAVL();
+            long start = System.nanoTime();
+            for (int key : keys) {
+                intAVL.insert(key);
+            }
+            report("IntAVL insert", System.nanoTime() - start);
+
+            start = System.nanoTime();
+            long found = 0;
+            for (int key : keys) {
+                found += intAVL.contains(key + 1) ? 1 : 0;
+            }
+            report("IntAVL contains", System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : keys) {
+                intAVL.delete(key);
+            }
+            report("IntAVL delete", System.nanoTime() - start);
+
+            LongAVL longAVL = new LongAVL();
+            start = System.nanoTime();
+            for (int key : keys) {
+                longAVL.insert(key);
+            }
+            report("LongAVL insert", System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : keys) {
+                found += longAVL.contains(key + 1) ? 1 : 0;
+            }
+            report("LongAVL contains", System.nanoTime() - start);
+
+            AVL<Integer> avl = new AVL<>();
+            start = System.nanoTime();
+            for (int key : keys) {
+                avl.insert(key);
+            }
+            report("AVL<Integer> insert", System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : keys) {
+                found += avl.contains(key + 1) ? 1 : 0;
+            }
+            report("AVL<Integer> contains", System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : keys) {
+                avl.delete(key);
+            }
+            report("AVL<Integer> delete", System.nanoTime() - start);
+
+            TreeSet<Integer> treeSet = new TreeSet<>();
+            start = System.nanoTime();
+            for (int key : keys) {
+                treeSet.add(key);
+            }
+            report("TreeSet<Integer> add", System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : keys) {
+                found += treeSet.contains(key + 1) ? 1 : 0;
+            }
+            report("TreeSet<Integer> contains", System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : keys) {
+                treeSet.remove(key);
+            }
+            report("TreeSet<Integer> remove", System.nanoTime() - start);
+
+            // Printed so the lookups cannot be optimized away.
+            System.out.printf("  (%,d hits)%n", found);
+        }
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.printf("  %-26s %8.1f ns/key%n", name, (double) nanos / KEYS);
+    }
+}
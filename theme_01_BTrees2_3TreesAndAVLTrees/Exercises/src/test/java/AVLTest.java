@@ -2,7 +2,14 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 public class AVLTest {
 
@@ -528,4 +535,457 @@ public class AVLTest {
         int[] expectedNodes = new int[] { };
         Assert.assertArrayEquals(expectedNodes, result);
     }
+
+    @Test
+    public void rebalance_LeftRight() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+
+        // Act
+        avl.insert(3);
+        avl.insert(1);
+        avl.insert(2);
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(2), avl.getRoot().value);
+        Assert.assertEquals(Integer.valueOf(1), avl.getRoot().left.value);
+        Assert.assertEquals(Integer.valueOf(3), avl.getRoot().right.value);
+    }
+
+    @Test
+    public void delete_NodeWithTwoChildren_ShouldRelinkSuccessor() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+        for (int i = 1; i < 10; i++) {
+            avl.insert(i);
+        }
+        Node<Integer> successor = avl.getRoot().right.left;
+
+        // Act
+        avl.delete(4);
+
+        // Assert
+        Assert.assertSame(successor, avl.getRoot());
+        Assert.assertEquals(Integer.valueOf(5), avl.getRoot().value);
+        Assert.assertFalse(avl.contains(4));
+    }
+
+    @Test
+    public void insertDelete_ManyRandom_ShouldStayBalanced() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(21);
+
+        // Act
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                avl.delete(value);
+                expected.remove(value);
+            } else {
+                avl.insert(value);
+                expected.add(value);
+            }
+        }
+        List<Integer> nodes = new ArrayList<>();
+        avl.eachInOrder(nodes::add);
+
+        // Assert
+        Assert.assertEquals(new ArrayList<>(expected), nodes);
+        assertBalanced(avl.getRoot());
+    }
+
+    // ORDER STATISTICS
+
+    @Test
+    public void rankAndSelect_ShouldBeInverse() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+        for (int i = 1; i <= 10; i++) {
+            avl.insert(i * 10);
+        }
+
+        // Act
+        int rankOfPresent = avl.rank(40);
+        int rankOfMissing = avl.rank(45);
+        int selected = avl.select(3);
+
+        // Assert
+        Assert.assertEquals(10, avl.size());
+        Assert.assertEquals(3, rankOfPresent);
+        Assert.assertEquals(4, rankOfMissing);
+        Assert.assertEquals(40, selected);
+        Assert.assertEquals(0, avl.rank(5));
+        Assert.assertEquals(10, avl.rank(500));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void select_IndexOutOfRange_ShouldThrow() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+        avl.insert(1);
+
+        // Act
+        avl.select(1);
+    }
+
+    @Test
+    public void floorAndCeiling_ShouldFindNearestItems() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+        for (int i = 1; i <= 10; i++) {
+            avl.insert(i * 10);
+        }
+
+        // Act & Assert
+        Assert.assertEquals(Integer.valueOf(40), avl.floor(45));
+        Assert.assertEquals(Integer.valueOf(50), avl.ceiling(45));
+        Assert.assertEquals(Integer.valueOf(40), avl.floor(40));
+        Assert.assertEquals(Integer.valueOf(40), avl.ceiling(40));
+        Assert.assertNull(avl.floor(5));
+        Assert.assertNull(avl.ceiling(105));
+    }
+
+    @Test
+    public void countInRangeAndRange_ShouldIncludeBothBounds() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+        for (int i = 1; i <= 10; i++) {
+            avl.insert(i * 10);
+        }
+
+        // Act
+        List<Integer> nodes = new ArrayList<>();
+        avl.range(30, 65, nodes::add);
+
+        // Assert
+        Assert.assertEquals(List.of(30, 40, 50, 60), nodes);
+        Assert.assertEquals(4, avl.countInRange(30, 65));
+        Assert.assertEquals(4, avl.countInRange(25, 60));
+        Assert.assertEquals(0, avl.countInRange(61, 69));
+        Assert.assertEquals(0, avl.countInRange(60, 30));
+    }
+
+    @Test
+    public void orderStatistics_ManyRandom_ShouldMatchTreeSet() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(22);
+
+        // Act
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(2000);
+            int operation = random.nextInt(10);
+            if (operation < 3) {
+                avl.delete(value);
+                expected.remove(value);
+            } else if (operation == 3 && !expected.isEmpty()) {
+                avl.deleteMin();
+                expected.pollFirst();
+            } else if (operation == 4 && !expected.isEmpty()) {
+                avl.deleteMax();
+                expected.pollLast();
+            } else {
+                avl.insert(value);
+                expected.add(value);
+            }
+        }
+
+        // Assert
+        assertSizes(avl.getRoot());
+        List<Integer> sorted = new ArrayList<>(expected);
+        Assert.assertEquals(sorted.size(), avl.size());
+        for (int i = 0; i < sorted.size(); i += 7) {
+            Assert.assertEquals(sorted.get(i), avl.select(i));
+            Assert.assertEquals(i, avl.rank(sorted.get(i)));
+        }
+        for (int i = 0; i < 200; i++) {
+            int lo = random.nextInt(2100) - 50;
+            int hi = lo + random.nextInt(300);
+            List<Integer> nodes = new ArrayList<>();
+            avl.range(lo, hi, nodes::add);
+
+            Assert.assertEquals(new ArrayList<>(expected.subSet(lo, true, hi, true)), nodes);
+            Assert.assertEquals(nodes.size(), avl.countInRange(lo, hi));
+            Assert.assertEquals(expected.floor(lo), avl.floor(lo));
+            Assert.assertEquals(expected.ceiling(hi), avl.ceiling(hi));
+        }
+    }
+
+    // BULK OPERATIONS
+
+    @Test
+    public void fromSorted_ShouldBuildBalancedTree() {
+        // Arrange
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(i * 2);
+        }
+
+        // Act
+        AVL<Integer> avl = AVL.fromSorted(items);
+        List<Integer> nodes = new ArrayList<>();
+        avl.eachInOrder(nodes::add);
+
+        // Assert
+        Assert.assertEquals(items, nodes);
+        Assert.assertEquals(10, avl.height());
+        assertBalanced(avl.getRoot());
+        assertSizes(avl.getRoot());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromSorted_UnsortedItems_ShouldThrow() {
+        // Act
+        AVL.fromSorted(List.of(1, 3, 2));
+    }
+
+    @Test
+    public void setOperations_ShouldMatchTreeSet() {
+        for (int seed = 0; seed < 20; seed++) {
+            // Arrange
+            Random random = new Random(seed);
+            TreeSet<Integer> firstItems = randomSet(random, random.nextInt(300), 500);
+            TreeSet<Integer> secondItems = randomSet(random, random.nextInt(300), 500);
+            AVL<Integer> first = AVL.fromSorted(new ArrayList<>(firstItems));
+            AVL<Integer> second = new AVL<>();
+            secondItems.forEach(second::insert);
+
+            // Act
+            AVL<Integer> union = first.union(second);
+            AVL<Integer> intersection = first.intersection(second);
+            AVL<Integer> difference = first.difference(second);
+
+            // Assert
+            TreeSet<Integer> expected = new TreeSet<>(firstItems);
+            expected.addAll(secondItems);
+            assertSameItems(expected, union);
+
+            expected = new TreeSet<>(firstItems);
+            expected.retainAll(secondItems);
+            assertSameItems(expected, intersection);
+
+            expected = new TreeSet<>(firstItems);
+            expected.removeAll(secondItems);
+            assertSameItems(expected, difference);
+
+            assertSameItems(firstItems, first);
+            assertSameItems(secondItems, second);
+        }
+    }
+
+    @Test
+    public void setOperations_InPool_ShouldMatchTreeSet() {
+        // Arrange
+        Random random = new Random(23);
+        TreeSet<Integer> firstItems = randomSet(random, 50000, 200000);
+        TreeSet<Integer> secondItems = randomSet(random, 30000, 200000);
+        AVL<Integer> first = AVL.fromSorted(new ArrayList<>(firstItems));
+        AVL<Integer> second = AVL.fromSorted(new ArrayList<>(secondItems));
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        // Act
+        AVL<Integer> union = first.union(second, pool);
+        AVL<Integer> intersection = first.intersection(second, pool);
+        AVL<Integer> difference = first.difference(second, pool);
+        pool.shutdown();
+
+        // Assert
+        TreeSet<Integer> expected = new TreeSet<>(firstItems);
+        expected.addAll(secondItems);
+        assertSameItems(expected, union);
+
+        expected = new TreeSet<>(firstItems);
+        expected.retainAll(secondItems);
+        assertSameItems(expected, intersection);
+
+        expected = new TreeSet<>(firstItems);
+        expected.removeAll(secondItems);
+        assertSameItems(expected, difference);
+
+        assertSameItems(firstItems, first);
+    }
+
+    @Test
+    public void union_ResultShouldStayUsable() {
+        // Arrange
+        AVL<Integer> first = AVL.fromSorted(List.of(1, 2, 3));
+        AVL<Integer> second = AVL.fromSorted(List.of(3, 4, 5));
+        AVL<Integer> union = first.union(second);
+
+        // Act
+        union.insert(6);
+        union.delete(1);
+        first.delete(2);
+
+        // Assert
+        assertSameItems(new TreeSet<>(List.of(2, 3, 4, 5, 6)), union);
+        assertSameItems(new TreeSet<>(List.of(1, 3)), first);
+        assertSameItems(new TreeSet<>(List.of(3, 4, 5)), second);
+    }
+
+    // ITERATION
+
+    @Test
+    public void iterator_ShouldReturnItemsInOrder() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+        for (int i = 20; i >= 1; i--) {
+            avl.insert(i * 3);
+        }
+
+        // Act
+        List<Integer> nodes = new ArrayList<>();
+        for (Integer item : avl) {
+            nodes.add(item);
+        }
+
+        // Assert
+        List<Integer> expected = new ArrayList<>();
+        avl.eachInOrder(expected::add);
+        Assert.assertEquals(expected, nodes);
+        Assert.assertFalse(new AVL<Integer>().iterator().hasNext());
+    }
+
+    @Test
+    public void stream_FindFirst_ShouldStopEarly() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+        for (int i = 0; i < 1000; i++) {
+            avl.insert(i);
+        }
+        List<Integer> visited = new ArrayList<>();
+
+        // Act
+        Integer found = avl.stream().peek(visited::add).filter(i -> i > 10).findFirst().orElse(null);
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(11), found);
+        Assert.assertEquals(12, visited.size());
+    }
+
+    @Test
+    public void spliterator_Split_ShouldCoverAllItemsInOrder() {
+        // Arrange
+        Random random = new Random(24);
+        AVL<Integer> avl = new AVL<>();
+        for (int i = 0; i < 5000; i++) {
+            avl.insert(random.nextInt(10000));
+        }
+        List<Integer> expected = new ArrayList<>();
+        avl.eachInOrder(expected::add);
+
+        // Act
+        Spliterator<Integer> suffix = avl.spliterator();
+        Spliterator<Integer> prefix = suffix.trySplit();
+        List<Integer> nodes = new ArrayList<>();
+        long prefixSize = prefix.estimateSize();
+        long suffixSize = suffix.estimateSize();
+        prefix.forEachRemaining(nodes::add);
+        suffix.forEachRemaining(nodes::add);
+
+        // Assert
+        Assert.assertEquals(expected, nodes);
+        Assert.assertEquals(expected.size(), prefixSize + suffixSize);
+        Assert.assertTrue(Math.abs(prefixSize - suffixSize) < expected.size() / 2);
+        Assert.assertEquals(expected, avl.stream().parallel().collect(Collectors.toList()));
+        Assert.assertEquals(expected.size(), avl.stream().parallel().count());
+    }
+
+    @Test
+    public void spliterator_RepeatedSplits_ShouldGiveBalancedHalves() {
+        // Arrange
+        Random random = new Random(24);
+        AVL<Integer> avl = new AVL<>();
+        for (int i = 0; i < 5000; i++) {
+            avl.insert(random.nextInt(10000));
+        }
+        List<Integer> expected = new ArrayList<>();
+        avl.eachInOrder(expected::add);
+
+        // Act
+        List<Integer> nodes = new ArrayList<>();
+        int pieces = splitFully(avl.spliterator(), nodes);
+
+        // Assert
+        Assert.assertEquals(expected, nodes);
+        Assert.assertEquals(expected.size(), pieces);
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void iterator_TreeModified_ShouldThrow() {
+        // Arrange
+        AVL<Integer> avl = new AVL<>();
+        for (int i = 0; i < 10; i++) {
+            avl.insert(i);
+        }
+        Iterator<Integer> iterator = avl.iterator();
+        iterator.next();
+
+        // Act
+        avl.insert(100);
+        avl.delete(100);
+        iterator.next();
+    }
+
+    // Splits until every piece is a single item, checking that each split halves its input.
+    private static int splitFully(Spliterator<Integer> spliterator, List<Integer> result) {
+        long size = spliterator.estimateSize();
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            Assert.assertTrue(size <= 1);
+            spliterator.forEachRemaining(result::add);
+            return 1;
+        }
+
+        Assert.assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+        Assert.assertTrue(Math.abs(prefix.estimateSize() - spliterator.estimateSize()) <= 1);
+
+        return splitFully(prefix, result) + splitFully(spliterator, result);
+    }
+
+    private static TreeSet<Integer> randomSet(Random random, int count, int bound) {
+        TreeSet<Integer> items = new TreeSet<>();
+        for (int i = 0; i < count; i++) {
+            items.add(random.nextInt(bound));
+        }
+        return items;
+    }
+
+    private static void assertSameItems(TreeSet<Integer> expected, AVL<Integer> avl) {
+        List<Integer> nodes = new ArrayList<>();
+        avl.eachInOrder(nodes::add);
+
+        Assert.assertEquals(new ArrayList<>(expected), nodes);
+        Assert.assertEquals(expected.size(), avl.size());
+        assertBalanced(avl.getRoot());
+        assertSizes(avl.getRoot());
+    }
+
+    private static int assertSizes(Node<Integer> node) {
+        if (node == null) {
+            return 0;
+        }
+
+        int size = assertSizes(node.left) + assertSizes(node.right) + 1;
+        Assert.assertEquals(size, node.size);
+
+        return size;
+    }
+
+    private static int assertBalanced(Node<Integer> node) {
+        if (node == null) {
+            return 0;
+        }
+
+        int left = assertBalanced(node.left);
+        int right = assertBalanced(node.right);
+
+        Assert.assertTrue(Math.abs(left - right) <= 1);
+        Assert.assertEquals(Math.max(left, right) + 1, node.height);
+
+        return node.height;
+    }
 }
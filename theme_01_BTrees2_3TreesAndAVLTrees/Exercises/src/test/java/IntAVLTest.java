@@ -0,0 +1,105 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class IntAVLTest {
+
+    @Test
+    public void insert_Duplicate_ShouldReturnFalse() {
+        // Arrange
+        IntAVL avl = new IntAVL();
+
+        // Act
+        boolean first = avl.insert(5);
+        boolean second = avl.insert(5);
+
+        // Assert
+        Assert.assertTrue(first);
+        Assert.assertFalse(second);
+        Assert.assertEquals(1, avl.size());
+        Assert.assertTrue(avl.contains(5));
+    }
+
+    @Test
+    public void insert_Ascending_ShouldStayBalanced() {
+        // Arrange
+        IntAVL avl = new IntAVL(1);
+
+        // Act
+        for (int i = 1; i <= 1023; i++) {
+            avl.insert(i);
+        }
+
+        // Assert
+        Assert.assertEquals(1023, avl.size());
+        Assert.assertEquals(10, avl.height());
+    }
+
+    @Test
+    public void delete_Missing_ShouldReturnFalse() {
+        // Arrange
+        IntAVL avl = new IntAVL();
+        avl.insert(1);
+
+        // Act
+        boolean deleted = avl.delete(2);
+
+        // Assert
+        Assert.assertFalse(deleted);
+        Assert.assertEquals(1, avl.size());
+    }
+
+    @Test
+    public void delete_All_ShouldReuseNodes() {
+        // Arrange
+        IntAVL avl = new IntAVL();
+        for (int i = 0; i < 100; i++) {
+            avl.insert(i);
+        }
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            avl.delete(i);
+        }
+        for (int i = 100; i > 0; i--) {
+            avl.insert(-i);
+        }
+        List<Integer> keys = new ArrayList<>();
+        avl.eachInOrder(keys::add);
+
+        // Assert
+        Assert.assertEquals(100, keys.size());
+        Assert.assertEquals(Integer.valueOf(-100), keys.get(0));
+        Assert.assertEquals(Integer.valueOf(-1), keys.get(99));
+        Assert.assertFalse(avl.contains(0));
+    }
+
+    @Test
+    public void insertDelete_ManyRandom_ShouldMatchTreeSet() {
+        // Arrange
+        IntAVL avl = new IntAVL();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(25);
+
+        // Act & Assert
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(5000) - 2500;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), avl.delete(key));
+            } else {
+                Assert.assertEquals(expected.add(key), avl.insert(key));
+            }
+        }
+
+        List<Integer> keys = new ArrayList<>();
+        avl.eachInOrder(keys::add);
+
+        Assert.assertEquals(new ArrayList<>(expected), keys);
+        Assert.assertEquals(expected.size(), avl.size());
+        Assert.assertTrue(avl.height() <= 1.4405 * Math.log(expected.size() + 2) / Math.log(2));
+    }
+}
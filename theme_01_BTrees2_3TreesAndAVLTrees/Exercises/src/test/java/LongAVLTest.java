@@ -0,0 +1,53 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class LongAVLTest {
+
+    @Test
+    public void insert_KeysBeyondIntRange_ShouldKeepOrder() {
+        // Arrange
+        LongAVL avl = new LongAVL();
+
+        // Act
+        avl.insert(Long.MAX_VALUE);
+        avl.insert(Long.MIN_VALUE);
+        avl.insert(1L << 40);
+        avl.insert(1L << 40);
+        List<Long> keys = new ArrayList<>();
+        avl.eachInOrder(keys::add);
+
+        // Assert
+        Assert.assertEquals(List.of(Long.MIN_VALUE, 1L << 40, Long.MAX_VALUE), keys);
+        Assert.assertFalse(avl.contains(0L));
+    }
+
+    @Test
+    public void insertDelete_ManyRandom_ShouldMatchTreeSet() {
+        // Arrange
+        LongAVL avl = new LongAVL();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(25);
+
+        // Act & Assert
+        for (int i = 0; i < 50000; i++) {
+            long key = (random.nextInt(5000) - 2500) * 1_000_000_007L;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), avl.delete(key));
+            } else {
+                Assert.assertEquals(expected.add(key), avl.insert(key));
+            }
+        }
+
+        List<Long> keys = new ArrayList<>();
+        avl.eachInOrder(keys::add);
+
+        Assert.assertEquals(new ArrayList<>(expected), keys);
+        Assert.assertEquals(expected.size(), avl.size());
+        Assert.assertTrue(avl.height() <= 1.4405 * Math.log(expected.size() + 2) / Math.log(2));
+    }
+}
@@ -1,7 +1,14 @@
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-class AATree<T extends Comparable<T>> {
+class AATree<T extends Comparable<T>> implements Iterable<T> {
     private Node<T> root;
+    // Number of changes to the tree; iterators fail fast when it changes under them.
+    private int modCount;
 
     public static class Node<T> {
         private T value;
@@ -27,10 +34,15 @@ class AATree<T extends Comparable<T>> {
 
     public void clear() {
         this.root = null;
+        this.modCount++;
     }
 
     public void insert(T element) {
+        int count = this.countNodes();
         this.root = this.insert(root, element);
+        if (this.countNodes() != count) {
+            this.modCount++;
+        }
     }
 
     private Node<T> insert(Node<T> node, T element) {
@@ -123,6 +135,21 @@ class AATree<T extends Comparable<T>> {
         }
     }
 
+    @Override
+    public Iterator<T> iterator() {
+        return Spliterators.iterator(this.spliterator());
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new InOrderSpliterator<>(this.root, n -> n.left, n -> n.right, n -> n.value, n -> n.count,
+                () -> this.modCount);
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
     public void preOrder(Consumer<T> consumer) {
         preOrder(root, consumer);
     }
@@ -3,7 +3,10 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
@@ -95,4 +98,70 @@ public class AATreeTest {
 
         assertEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void iterator() {
+        List<Integer> actual = new ArrayList<>();
+        for (Integer integer : this.aaTree) {
+            actual.add(integer);
+        }
+
+        List<Integer> expected = new ArrayList<>();
+        this.aaTree.inOrder(expected::add);
+
+        assertEquals(expected, actual);
+        assertFalse(new AATree<Integer>().iterator().hasNext());
+    }
+
+    @Test
+    public void streamFindFirst() {
+        List<Integer> visited = new ArrayList<>();
+
+        Integer found = this.aaTree.stream().peek(visited::add).filter(i -> i > 10).findFirst().orElse(null);
+
+        assertEquals(Integer.valueOf(13), found);
+        assertEquals(List.of(1, 2, 6, 7, 13), visited);
+    }
+
+    @Test
+    public void spliteratorSplit() {
+        AATree<Integer> tree = new AATree<>();
+        for (int i = 0; i < 1000; i++) {
+            tree.insert(i);
+        }
+
+        Spliterator<Integer> suffix = tree.spliterator();
+        Spliterator<Integer> prefix = suffix.trySplit();
+
+        assertEquals(500, prefix.estimateSize());
+        assertEquals(500, suffix.estimateSize());
+
+        Spliterator<Integer> first = prefix.trySplit();
+        Spliterator<Integer> third = suffix.trySplit();
+        assertEquals(250, first.estimateSize());
+        assertEquals(250, prefix.estimateSize());
+        assertEquals(250, third.estimateSize());
+        assertEquals(250, suffix.estimateSize());
+
+        List<Integer> actual = new ArrayList<>();
+        first.forEachRemaining(actual::add);
+        prefix.forEachRemaining(actual::add);
+        third.forEachRemaining(actual::add);
+        suffix.forEachRemaining(actual::add);
+
+        List<Integer> expected = new ArrayList<>();
+        tree.inOrder(expected::add);
+
+        assertEquals(expected, actual);
+        assertEquals(expected, tree.stream().parallel().collect(Collectors.toList()));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void iteratorAfterInsert() {
+        Iterator<Integer> iterator = this.aaTree.iterator();
+        iterator.next();
+
+        this.aaTree.insert(100);
+        iterator.next();
+    }
+}
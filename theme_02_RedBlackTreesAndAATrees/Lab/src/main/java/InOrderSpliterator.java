@@ -0,0 +1,172 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+// Lazy in-order traversal of a binary search tree of N nodes holding T values, without recursion. The remaining
+// items are kept as a stack of segments, next one on top: either a whole subtree or a single node whose
+// subtrees are covered elsewhere. trySplit expands the whole subtree that straddles the middle of the remaining
+// items until a segment boundary falls exactly on it, so the halves differ by at most one item and their sizes
+// are known from the subtree counts. Fails fast when the tree's modification count changes.
+class InOrderSpliterator<N, T> implements Spliterator<T> {
+
+    private final Function<N, N> left;
+    private final Function<N, N> right;
+    private final Function<N, T> value;
+    private final ToIntFunction<N> size;
+    private final IntSupplier modifications;
+    private final int expectedModifications;
+
+    private Object[] nodes;
+    private boolean[] whole;
+    private int top;
+    private long remaining;
+
+    InOrderSpliterator(N root, Function<N, N> left, Function<N, N> right, Function<N, T> value,
+                       ToIntFunction<N> size, IntSupplier modifications) {
+        this(left, right, value, size, modifications, modifications.getAsInt(), new Object[8], new boolean[8], 0);
+
+        if (root != null) {
+            this.nodes[0] = root;
+            this.whole[0] = true;
+            this.top = 1;
+            this.remaining = size.applyAsInt(root);
+        }
+    }
+
+    private InOrderSpliterator(Function<N, N> left, Function<N, N> right, Function<N, T> value,
+                               ToIntFunction<N> size, IntSupplier modifications, int expectedModifications,
+                               Object[] nodes, boolean[] whole, int top) {
+        this.left = left;
+        this.right = right;
+        this.value = value;
+        this.size = size;
+        this.modifications = modifications;
+        this.expectedModifications = expectedModifications;
+        this.nodes = nodes;
+        this.whole = whole;
+        this.top = top;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (this.modifications.getAsInt() != this.expectedModifications) {
+            throw new ConcurrentModificationException();
+        }
+
+        while (this.top > 0) {
+            int last = this.top - 1;
+
+            if (!this.whole[last]) {
+                N node = (N) this.nodes[last];
+                this.top--;
+                this.remaining--;
+                action.accept(this.value.apply(node));
+                return true;
+            }
+
+            this.expand(last);
+        }
+
+        return false;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (this.remaining < 2) {
+            return null;
+        }
+
+        long half = this.remaining / 2;
+
+        // suffix counts the items of segments 0..straddling-1, the ones visited last.
+        int straddling;
+        while (true) {
+            long suffix = 0;
+            straddling = 0;
+            while (suffix + this.segmentSize(straddling) < half) {
+                suffix += this.segmentSize(straddling);
+                straddling++;
+            }
+
+            if (!this.whole[straddling] || suffix + this.segmentSize(straddling) == half) {
+                break;
+            }
+            this.expand(straddling);
+        }
+
+        // Segments 0..straddling now hold exactly half of the items: the straddling one either ends at the
+        // middle or is a single node, which can only be crossed by reaching the middle.
+        int boundary = straddling + 1;
+
+        InOrderSpliterator<N, T> prefix = new InOrderSpliterator<>(this.left, this.right, this.value, this.size,
+                this.modifications, this.expectedModifications,
+                Arrays.copyOfRange(this.nodes, boundary, this.nodes.length),
+                Arrays.copyOfRange(this.whole, boundary, this.whole.length), this.top - boundary);
+        prefix.remaining = this.remaining - half;
+
+        this.top = boundary;
+        this.remaining = half;
+
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SORTED | DISTINCT | SIZED | SUBSIZED;
+    }
+
+    // Items are in their natural order.
+    @Override
+    public Comparator<? super T> getComparator() {
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private long segmentSize(int segment) {
+        return this.whole[segment] ? this.size.applyAsInt((N) this.nodes[segment]) : 1;
+    }
+
+    // Replaces the whole subtree at segment with its right subtree, its root and its left subtree, in that
+    // order from the bottom, shifting the segments above it up.
+    @SuppressWarnings("unchecked")
+    private void expand(int segment) {
+        N node = (N) this.nodes[segment];
+        N right = this.right.apply(node);
+        N left = this.left.apply(node);
+
+        int added = (right != null ? 1 : 0) + (left != null ? 1 : 0);
+        if (this.top + added > this.nodes.length) {
+            this.nodes = Arrays.copyOf(this.nodes, Math.max(this.nodes.length * 2, this.top + added));
+            this.whole = Arrays.copyOf(this.whole, this.nodes.length);
+        }
+
+        System.arraycopy(this.nodes, segment + 1, this.nodes, segment + 1 + added, this.top - segment - 1);
+        System.arraycopy(this.whole, segment + 1, this.whole, segment + 1 + added, this.top - segment - 1);
+        this.top += added;
+
+        int index = segment;
+        if (right != null) {
+            this.nodes[index] = right;
+            this.whole[index++] = true;
+        }
+
+        this.nodes[index] = node;
+        this.whole[index++] = false;
+
+        if (left != null) {
+            this.nodes[index] = left;
+            this.whole[index] = true;
+        }
+    }
+}
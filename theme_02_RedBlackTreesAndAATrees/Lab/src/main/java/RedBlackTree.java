@@ -1,10 +1,17 @@
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class RedBlackTree<T extends Comparable<T>> {
+public class RedBlackTree<T extends Comparable<T>> implements Iterable<T> {
     private static final boolean RED = true;
     private static final boolean BLACK = false;
 
     private Node<T> root;
+    // Number of insertions so far; iterators fail fast when it changes under them.
+    private int modCount;
 
     public RedBlackTree() {
     }
@@ -40,8 +47,12 @@ public class RedBlackTree<T extends Comparable<T>> {
     //  The difference is that the recursive call should
     //  return Node
     public void insert(T value) {
+        int count = this.getNodesCount();
         this.root = this.insert(this.root, value);
         this.root.color = BLACK;
+        if (this.getNodesCount() != count) {
+            this.modCount++;
+        }
     }
 
     private Node<T> insert(Node<T> node, T value) {
@@ -149,6 +160,21 @@ public class RedBlackTree<T extends Comparable<T>> {
         this.eachInOrder(node.right, consumer);
     }
 
+    @Override
+    public Iterator<T> iterator() {
+        return Spliterators.iterator(this.spliterator());
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new InOrderSpliterator<>(this.root, n -> n.left, n -> n.right, n -> n.value, n -> n.count,
+                () -> this.modCount);
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
     public static class Node<T extends Comparable<T>> {
         private T value;
         private Node<T> left;
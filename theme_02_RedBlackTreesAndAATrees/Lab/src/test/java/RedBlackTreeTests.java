@@ -2,7 +2,11 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 public class RedBlackTreeTests {
 
@@ -66,4 +70,82 @@ public class RedBlackTreeTests {
 
         Assert.assertEquals(true, rbt.contains(99999));
     }
+
+    @Test
+    public void iterator_MultipleElements_ShouldIterateInOrder() {
+        RedBlackTree<Integer> rbt = new RedBlackTree<>();
+        for (int i = 20; i >= 1; i--) {
+            rbt.insert(i * 3);
+        }
+
+        List<Integer> nodes = new ArrayList<>();
+        for (Integer value : rbt) {
+            nodes.add(value);
+        }
+
+        List<Integer> expected = new ArrayList<>();
+        rbt.eachInOrder(expected::add);
+
+        Assert.assertEquals(expected, nodes);
+        Assert.assertFalse(new RedBlackTree<Integer>().iterator().hasNext());
+    }
+
+    @Test
+    public void stream_FindFirst_ShouldStopEarly() {
+        RedBlackTree<Integer> rbt = new RedBlackTree<>();
+        for (int i = 0; i < 1000; i++) {
+            rbt.insert(i);
+        }
+        List<Integer> visited = new ArrayList<>();
+
+        Integer found = rbt.stream().peek(visited::add).filter(i -> i > 10).findFirst().orElse(null);
+
+        Assert.assertEquals(Integer.valueOf(11), found);
+        Assert.assertEquals(12, visited.size());
+    }
+
+    @Test
+    public void spliterator_Split_ShouldCoverAllElementsInOrder() {
+        RedBlackTree<Integer> rbt = new RedBlackTree<>();
+        for (int i = 0; i < 1000; i++) {
+            rbt.insert(i);
+        }
+
+        Spliterator<Integer> suffix = rbt.spliterator();
+        Spliterator<Integer> prefix = suffix.trySplit();
+
+        Assert.assertEquals(500, prefix.estimateSize());
+        Assert.assertEquals(500, suffix.estimateSize());
+
+        Spliterator<Integer> first = prefix.trySplit();
+        Spliterator<Integer> third = suffix.trySplit();
+        Assert.assertEquals(250, first.estimateSize());
+        Assert.assertEquals(250, prefix.estimateSize());
+        Assert.assertEquals(250, third.estimateSize());
+        Assert.assertEquals(250, suffix.estimateSize());
+
+        List<Integer> nodes = new ArrayList<>();
+        first.forEachRemaining(nodes::add);
+        prefix.forEachRemaining(nodes::add);
+        third.forEachRemaining(nodes::add);
+        suffix.forEachRemaining(nodes::add);
+
+        List<Integer> expected = new ArrayList<>();
+        rbt.eachInOrder(expected::add);
+
+        Assert.assertEquals(expected, nodes);
+        Assert.assertEquals(expected, rbt.stream().parallel().collect(Collectors.toList()));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void iterator_InsertDuringIteration_ShouldThrow() {
+        RedBlackTree<Integer> rbt = new RedBlackTree<>();
+        rbt.insert(1);
+        rbt.insert(2);
+        Iterator<Integer> iterator = rbt.iterator();
+        iterator.next();
+
+        rbt.insert(3);
+        iterator.next();
+    }
 }
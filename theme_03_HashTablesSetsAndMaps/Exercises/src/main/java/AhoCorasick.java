@@ -0,0 +1,115 @@
+import java.util.*;
+
+// Aho-Corasick automaton over a fixed dictionary. One pass over a text reports every occurrence of every
+// word, in O(text length + matches) regardless of the dictionary size.
+public class AhoCorasick {
+
+    private final Node root;
+    private final int size;
+
+    public AhoCorasick(Collection<String> words) {
+        this.root = new Node(0);
+
+        int size = 0;
+        for (String word : words) {
+            if (!word.isEmpty() && this.insert(word)) {
+                size++;
+            }
+        }
+        this.size = size;
+
+        this.linkFailures();
+    }
+
+    // Distinct non-empty words in the dictionary.
+    public int size() {
+        return this.size;
+    }
+
+    // Reports each match as (start position, word). Matches come in order of their end position; matches
+    // ending at the same position come longest first.
+    public void forEachMatch(CharSequence text, IntObjConsumer<String> action) {
+        Node node = this.root;
+
+        for (int i = 0; i < text.length(); i++) {
+            node = this.step(node, text.charAt(i));
+
+            for (Node match = node.word != null ? node : node.nextMatch; match != null; match = match.nextMatch) {
+                action.accept(i - match.depth + 1, match.word);
+            }
+        }
+    }
+
+    // Start positions of every word in text, grouped by position and sorted.
+    public NavigableMap<Integer, TreeSet<String>> matchesByPosition(CharSequence text) {
+        NavigableMap<Integer, TreeSet<String>> matches = new TreeMap<>();
+        this.forEachMatch(text, (position, word) -> matches.computeIfAbsent(position, p -> new TreeSet<>()).add(word));
+        return matches;
+    }
+
+    private boolean insert(String word) {
+        Node node = this.root;
+        for (int i = 0; i < word.length(); i++) {
+            char symbol = word.charAt(i);
+            Node child = node.children.get(symbol);
+            if (child == null) {
+                child = new Node(node.depth + 1);
+                node.children.put(symbol, child);
+            }
+            node = child;
+        }
+
+        if (node.word != null) {
+            return false;
+        }
+
+        node.word = word;
+        return true;
+    }
+
+    // Breadth-first, so the failure target of every node is finished before the node itself.
+    private void linkFailures() {
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node child : this.root.children.values()) {
+            child.failure = this.root;
+            queue.offer(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                Node child = entry.getValue();
+                child.failure = this.step(node.failure, entry.getKey());
+                child.nextMatch = child.failure.word != null ? child.failure : child.failure.nextMatch;
+                queue.offer(child);
+            }
+        }
+    }
+
+    private Node step(Node node, char symbol) {
+        while (true) {
+            Node child = node.children.get(symbol);
+            if (child != null) {
+                return child;
+            }
+            if (node == this.root) {
+                return this.root;
+            }
+            node = node.failure;
+        }
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final int depth;
+        private Node failure;
+        // Nearest node on the failure chain that ends a word.
+        private Node nextMatch;
+        private String word;
+
+        private Node(int depth) {
+            this.depth = depth;
+        }
+    }
+}
@@ -0,0 +1,454 @@
+import java.util.*;
+
+// Struct-of-arrays arena for analytic scans: every card is a row spread over parallel primitive columns,
+// with names dictionary-encoded to int codes. Rows stay in insertion order; removed rows are flagged and
+// compacted away once they make up half of the table. Queries scan the columns and build Battlecard
+// objects only for the rows they return, so returned cards are copies and changing one does not change
+// the arena.
+public class ColumnarRoyaleArena implements IArena {
+    private final static int INITIAL_CAPACITY = 16;
+
+    private static final CardType[] TYPES = CardType.values();
+
+    private int[] ids;
+    private byte[] types;
+    private int[] nameCodes;
+    private double[] damages;
+    private double[] swags;
+    private boolean[] removed;
+
+    // Rows in use, including removed ones that have not been compacted yet.
+    private int size;
+    private int removedCount;
+
+    private Map<Integer, Integer> rowsByIds;
+    private List<String> names;
+    private Map<String, Integer> codesByNames;
+
+    public ColumnarRoyaleArena() {
+        this.ids = new int[INITIAL_CAPACITY];
+        this.types = new byte[INITIAL_CAPACITY];
+        this.nameCodes = new int[INITIAL_CAPACITY];
+        this.damages = new double[INITIAL_CAPACITY];
+        this.swags = new double[INITIAL_CAPACITY];
+        this.removed = new boolean[INITIAL_CAPACITY];
+        this.rowsByIds = new HashMap<>();
+        this.names = new ArrayList<>();
+        this.codesByNames = new HashMap<>();
+    }
+
+    @Override
+    public void add(Battlecard card) {
+        if (this.rowsByIds.containsKey(card.getId())) {
+            return;
+        }
+
+        if (this.size == this.ids.length) {
+            this.resize(this.ids.length * 2);
+        }
+
+        int row = this.size++;
+        this.ids[row] = card.getId();
+        this.types[row] = (byte) card.getType().ordinal();
+        this.nameCodes[row] = this.encode(card.getName());
+        this.damages[row] = card.getDamage();
+        this.swags[row] = card.getSwag();
+        this.removed[row] = false;
+        this.rowsByIds.put(card.getId(), row);
+    }
+
+    @Override
+    public boolean contains(Battlecard card) {
+        return this.rowsByIds.containsKey(card.getId());
+    }
+
+    @Override
+    public int count() {
+        return this.rowsByIds.size();
+    }
+
+    @Override
+    public void changeCardType(int id, CardType type) {
+        Integer row = this.rowsByIds.get(id);
+        if (row == null) {
+            throw new IllegalArgumentException("No card with id: " + id);
+        }
+
+        this.types[row] = (byte) type.ordinal();
+    }
+
+    @Override
+    public void changeCardTypes(Map<Integer, CardType> types) {
+        for (Integer id : types.keySet()) {
+            if (!this.rowsByIds.containsKey(id)) {
+                throw new IllegalArgumentException("No card with id: " + id);
+            }
+        }
+
+        for (Map.Entry<Integer, CardType> entry : types.entrySet()) {
+            this.types[this.rowsByIds.get(entry.getKey())] = (byte) entry.getValue().ordinal();
+        }
+    }
+
+    @Override
+    public Battlecard getById(int id) {
+        Integer row = this.rowsByIds.get(id);
+        if (row == null) {
+            throw new UnsupportedOperationException();
+        }
+
+        return this.cardAt(row);
+    }
+
+    @Override
+    public void removeById(int id) {
+        Integer row = this.rowsByIds.remove(id);
+        if (row == null) {
+            throw new UnsupportedOperationException();
+        }
+
+        this.removed[row] = true;
+        this.removedCount++;
+
+        if (this.removedCount * 2 > this.size) {
+            this.compact();
+        }
+    }
+
+    @Override
+    public Iterable<Battlecard> getByCardType(CardType type) {
+        int[] rows = this.rowsOfType(type);
+        if (rows.length == 0) {
+            throw new UnsupportedOperationException();
+        }
+
+        return this.cardsAt(rows, this.byDamageDescendingThenId());
+    }
+
+    @Override
+    public Iterable<Battlecard> getByTypeAndDamageRangeOrderedByDamageThenById(CardType type, int lo, int hi) {
+        int[] rows = this.rowsOfType(type);
+        if (rows.length == 0) {
+            throw new UnsupportedOperationException();
+        }
+
+        int matches = 0;
+        for (int row : rows) {
+            double damage = this.damages[row];
+            rows[matches] = row;
+            matches += damage > lo & damage < hi ? 1 : 0;
+        }
+
+        if (matches == 0) {
+            throw new UnsupportedOperationException();
+        }
+
+        return this.cardsAt(Arrays.copyOf(rows, matches), this.byDamageDescendingThenId());
+    }
+
+    @Override
+    public Iterable<Battlecard> getByCardTypeAndMaximumDamage(CardType type, double damage) {
+        int[] rows = this.rowsOfType(type);
+        if (rows.length == 0) {
+            throw new UnsupportedOperationException();
+        }
+
+        int matches = 0;
+        for (int row : rows) {
+            rows[matches] = row;
+            matches += this.damages[row] <= damage ? 1 : 0;
+        }
+
+        if (matches == 0) {
+            throw new UnsupportedOperationException();
+        }
+
+        return this.cardsAt(Arrays.copyOf(rows, matches), this.byDamageDescendingThenId());
+    }
+
+    @Override
+    public Iterable<Battlecard> getByNameOrderedBySwagDescending(String name) {
+        int[] rows = this.rowsWithName(name);
+        if (rows.length == 0) {
+            throw new UnsupportedOperationException();
+        }
+
+        return this.cardsAt(rows, this.bySwagDescendingThenId());
+    }
+
+    @Override
+    public Iterable<Battlecard> getByNameAndSwagRange(String name, double lo, double hi) {
+        int[] rows = this.rowsWithName(name);
+        if (rows.length == 0 || !(lo < hi)) {
+            throw new UnsupportedOperationException();
+        }
+
+        int matches = 0;
+        for (int row : rows) {
+            double swag = this.swags[row];
+            rows[matches] = row;
+            matches += swag >= lo & swag < hi ? 1 : 0;
+        }
+
+        if (matches == 0) {
+            throw new UnsupportedOperationException();
+        }
+
+        return this.cardsAt(Arrays.copyOf(rows, matches), this.bySwagDescendingThenId());
+    }
+
+    @Override
+    public Iterable<Battlecard> getAllByNameAndSwag() {
+        int[] bestRows = new int[this.names.size()];
+        Arrays.fill(bestRows, -1);
+        int[] codesInOrder = new int[this.names.size()];
+        int distinct = 0;
+
+        for (int row = 0; row < this.size; row++) {
+            if (this.removed[row]) {
+                continue;
+            }
+
+            int code = this.nameCodes[row];
+            int best = bestRows[code];
+            if (best < 0) {
+                bestRows[code] = row;
+                codesInOrder[distinct++] = code;
+            } else if (this.swags[row] > this.swags[best]) {
+                bestRows[code] = row;
+            }
+        }
+
+        List<Battlecard> battleCards = new ArrayList<>(distinct);
+        for (int i = 0; i < distinct; i++) {
+            battleCards.add(this.cardAt(bestRows[codesInOrder[i]]));
+        }
+
+        return battleCards;
+    }
+
+    // Keeps the n best rows seen so far in a max-heap, so the scan costs O(N log n) rather than a full sort.
+    @Override
+    public Iterable<Battlecard> findFirstLeastSwag(int n) {
+        if (n > this.count()) {
+            throw new UnsupportedOperationException();
+        }
+        if (n < 0) {
+            throw new IllegalArgumentException(Integer.toString(n));
+        }
+
+        RowOrder bySwagThenId = this.bySwagThenId();
+        PriorityQueue<Integer> worstFirst = new PriorityQueue<>(Math.max(1, n), (a, b) -> bySwagThenId.compare(b, a));
+        for (int row = 0; row < this.size && n > 0; row++) {
+            if (this.removed[row]) {
+                continue;
+            }
+
+            if (worstFirst.size() < n) {
+                worstFirst.add(row);
+            } else if (bySwagThenId.compare(row, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(row);
+            }
+        }
+
+        int[] rows = new int[worstFirst.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = worstFirst.poll();
+        }
+
+        return this.cardsAt(rows, bySwagThenId);
+    }
+
+    // Rows are scanned in insertion order and the sort is stable, so equal swag keeps insertion order.
+    @Override
+    public Iterable<Battlecard> getAllInSwagRange(double lo, double hi) {
+        if (lo > hi) {
+            return new ArrayList<>();
+        }
+
+        int[] rows = this.rowsInSwagRange(lo, hi);
+        return this.cardsAt(rows, (a, b) -> Double.compare(this.swags[a], this.swags[b]));
+    }
+
+    public int countInSwagRange(double lo, double hi) {
+        int matches = 0;
+        for (int row = 0; row < this.size; row++) {
+            double swag = this.swags[row];
+            matches += swag >= lo & swag <= hi & !this.removed[row] ? 1 : 0;
+        }
+        return matches;
+    }
+
+    // Total damage of the cards of every type, indexed by CardType.ordinal(). One sequential pass over the
+    // type, removed and damage columns.
+    public double[] damageSumsByType() {
+        double[] sums = new double[TYPES.length];
+        for (int row = 0; row < this.size; row++) {
+            if (!this.removed[row]) {
+                sums[this.types[row]] += this.damages[row];
+            }
+        }
+        return sums;
+    }
+
+    @Override
+    public Iterator<Battlecard> iterator() {
+        List<Battlecard> battleCards = new ArrayList<>(this.count());
+        for (int row = 0; row < this.size; row++) {
+            if (!this.removed[row]) {
+                battleCards.add(this.cardAt(row));
+            }
+        }
+
+        return Collections.unmodifiableList(battleCards).iterator();
+    }
+
+    // The filters below write every row index and advance the output cursor only on a match. No branch in the
+    // source depends on the data, so the JIT can use a compare-and-add, and selectivity does not bring
+    // mispredictions with it.
+    private int[] rowsInSwagRange(double lo, double hi) {
+        int[] rows = new int[this.size];
+        int matches = 0;
+        for (int row = 0; row < this.size; row++) {
+            double swag = this.swags[row];
+            rows[matches] = row;
+            matches += swag >= lo & swag <= hi & !this.removed[row] ? 1 : 0;
+        }
+        return Arrays.copyOf(rows, matches);
+    }
+
+    private int[] rowsOfType(CardType type) {
+        byte ordinal = (byte) type.ordinal();
+        int[] rows = new int[this.size];
+        int matches = 0;
+        for (int row = 0; row < this.size; row++) {
+            rows[matches] = row;
+            matches += this.types[row] == ordinal & !this.removed[row] ? 1 : 0;
+        }
+        return Arrays.copyOf(rows, matches);
+    }
+
+    private int[] rowsWithName(String name) {
+        Integer encoded = this.codesByNames.get(name);
+        if (encoded == null) {
+            return new int[0];
+        }
+
+        int code = encoded;
+        int[] rows = new int[this.size];
+        int matches = 0;
+        for (int row = 0; row < this.size; row++) {
+            rows[matches] = row;
+            matches += this.nameCodes[row] == code & !this.removed[row] ? 1 : 0;
+        }
+        return Arrays.copyOf(rows, matches);
+    }
+
+    private RowOrder byDamageDescendingThenId() {
+        return (a, b) -> {
+            int compare = Double.compare(this.damages[b], this.damages[a]);
+            return compare != 0 ? compare : Integer.compare(this.ids[a], this.ids[b]);
+        };
+    }
+
+    private RowOrder bySwagDescendingThenId() {
+        return (a, b) -> {
+            int compare = Double.compare(this.swags[b], this.swags[a]);
+            return compare != 0 ? compare : Integer.compare(this.ids[a], this.ids[b]);
+        };
+    }
+
+    private RowOrder bySwagThenId() {
+        return (a, b) -> {
+            int compare = Double.compare(this.swags[a], this.swags[b]);
+            return compare != 0 ? compare : Integer.compare(this.ids[a], this.ids[b]);
+        };
+    }
+
+    private List<Battlecard> cardsAt(int[] rows, RowOrder order) {
+        sort(rows, new int[rows.length], 0, rows.length, order);
+
+        List<Battlecard> battleCards = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            battleCards.add(this.cardAt(row));
+        }
+        return battleCards;
+    }
+
+    // Stable merge sort of row numbers, so rows that compare equal keep insertion order.
+    private static void sort(int[] rows, int[] buffer, int from, int to, RowOrder order) {
+        if (to - from < 2) {
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        sort(rows, buffer, from, middle, order);
+        sort(rows, buffer, middle, to, order);
+
+        if (order.compare(rows[middle - 1], rows[middle]) <= 0) {
+            return;
+        }
+
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && order.compare(buffer[left], buffer[right]) <= 0)) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private Battlecard cardAt(int row) {
+        return new Battlecard(this.ids[row], TYPES[this.types[row]], this.names.get(this.nameCodes[row]),
+                this.damages[row], this.swags[row]);
+    }
+
+    private int encode(String name) {
+        Integer code = this.codesByNames.get(name);
+        if (code == null) {
+            code = this.names.size();
+            this.names.add(name);
+            this.codesByNames.put(name, code);
+        }
+        return code;
+    }
+
+    private void compact() {
+        int live = 0;
+        for (int row = 0; row < this.size; row++) {
+            if (this.removed[row]) {
+                continue;
+            }
+
+            this.ids[live] = this.ids[row];
+            this.types[live] = this.types[row];
+            this.nameCodes[live] = this.nameCodes[row];
+            this.damages[live] = this.damages[row];
+            this.swags[live] = this.swags[row];
+            this.removed[live] = false;
+            this.rowsByIds.put(this.ids[live], live);
+            live++;
+        }
+
+        this.size = live;
+        this.removedCount = 0;
+    }
+
+    private void resize(int capacity) {
+        this.ids = Arrays.copyOf(this.ids, capacity);
+        this.types = Arrays.copyOf(this.types, capacity);
+        this.nameCodes = Arrays.copyOf(this.nameCodes, capacity);
+        this.damages = Arrays.copyOf(this.damages, capacity);
+        this.swags = Arrays.copyOf(this.swags, capacity);
+        this.removed = Arrays.copyOf(this.removed, capacity);
+    }
+
+    // Compares two row numbers without boxing them.
+    private interface RowOrder {
+        int compare(int left, int right);
+    }
+}
@@ -0,0 +1,172 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Left-right arena: two RoyaleArena copies hold the same cards. Readers only announce themselves on a
+// counter and query the copy that is currently published, so they never block and always see every
+// index at the same version. A writer changes the hidden copy, publishes it, waits for the readers still
+// on the old copy to leave, then applies the same change there. Writers are serialized and each write
+// costs two index updates instead of a full copy.
+//
+// Query results never expose live views of a copy, because that copy will be written to later. Cards
+// are shared by both copies and must not be mutated once added; changeCardType swaps in a changed copy.
+public class ConcurrentRoyaleArena implements IArena {
+    private final RoyaleArena[] arenas;
+    private volatile int published;
+
+    // Readers arrive and depart on the counters of the version they saw; a writer waits until the two sums
+    // of a version match before it touches the copy that version's readers may be using.
+    private final LongAdder[] arrivals;
+    private final LongAdder[] departures;
+    private volatile int version;
+
+    private final ReentrantLock writeLock;
+
+    public ConcurrentRoyaleArena() {
+        this.arenas = new RoyaleArena[]{new RoyaleArena(), new RoyaleArena()};
+        this.arrivals = new LongAdder[]{new LongAdder(), new LongAdder()};
+        this.departures = new LongAdder[]{new LongAdder(), new LongAdder()};
+        this.writeLock = new ReentrantLock();
+    }
+
+    @Override
+    public void add(Battlecard card) {
+        this.write(arena -> arena.add(card));
+    }
+
+    // Publishes all cards at once, so readers see either none or all of them. The cards are copied once
+    // up front, so both copies get the same cards and the caller's iterable is walked only once.
+    public void addAll(Iterable<Battlecard> cards) {
+        List<Battlecard> added = copyOf(cards);
+        this.write(arena -> added.forEach(arena::add));
+    }
+
+    @Override
+    public boolean contains(Battlecard card) {
+        return this.read(arena -> arena.contains(card));
+    }
+
+    @Override
+    public int count() {
+        return this.read(RoyaleArena::count);
+    }
+
+    @Override
+    public void changeCardType(int id, CardType type) {
+        this.write(arena -> arena.replaceCardType(id, type));
+    }
+
+    @Override
+    public void changeCardTypes(Map<Integer, CardType> types) {
+        Map<Integer, CardType> changed = new HashMap<>(types);
+        this.write(arena -> arena.replaceCardTypes(changed));
+    }
+
+    @Override
+    public Battlecard getById(int id) {
+        return this.read(arena -> arena.getById(id));
+    }
+
+    @Override
+    public void removeById(int id) {
+        this.write(arena -> arena.removeById(id));
+    }
+
+    @Override
+    public Iterable<Battlecard> getByCardType(CardType type) {
+        return this.read(arena -> copyOf(arena.getByCardType(type)));
+    }
+
+    @Override
+    public Iterable<Battlecard> getByTypeAndDamageRangeOrderedByDamageThenById(CardType type, int lo, int hi) {
+        return this.read(arena -> copyOf(arena.getByTypeAndDamageRangeOrderedByDamageThenById(type, lo, hi)));
+    }
+
+    @Override
+    public Iterable<Battlecard> getByCardTypeAndMaximumDamage(CardType type, double damage) {
+        return this.read(arena -> copyOf(arena.getByCardTypeAndMaximumDamage(type, damage)));
+    }
+
+    @Override
+    public Iterable<Battlecard> getByNameOrderedBySwagDescending(String name) {
+        return this.read(arena -> arena.getByNameOrderedBySwagDescending(name));
+    }
+
+    @Override
+    public Iterable<Battlecard> getByNameAndSwagRange(String name, double lo, double hi) {
+        return this.read(arena -> arena.getByNameAndSwagRange(name, lo, hi));
+    }
+
+    @Override
+    public Iterable<Battlecard> getAllByNameAndSwag() {
+        return this.read(RoyaleArena::getAllByNameAndSwag);
+    }
+
+    @Override
+    public Iterable<Battlecard> findFirstLeastSwag(int n) {
+        return this.read(arena -> arena.findFirstLeastSwag(n));
+    }
+
+    @Override
+    public Iterable<Battlecard> getAllInSwagRange(double lo, double hi) {
+        return this.read(arena -> arena.getAllInSwagRange(lo, hi));
+    }
+
+    // Iterates over the cards present at the time of the call; remove is not supported.
+    @Override
+    public Iterator<Battlecard> iterator() {
+        return Collections.unmodifiableList(this.read(ConcurrentRoyaleArena::copyOf)).iterator();
+    }
+
+    private <T> T read(Function<RoyaleArena, T> query) {
+        int version = this.version;
+        this.arrivals[version].increment();
+        try {
+            return query.apply(this.arenas[this.published]);
+        } finally {
+            this.departures[version].increment();
+        }
+    }
+
+    // RoyaleArena checks its arguments before it changes anything, so a change that throws on the hidden
+    // copy leaves both copies as they were.
+    private void write(Consumer<RoyaleArena> change) {
+        this.writeLock.lock();
+        try {
+            int hidden = 1 - this.published;
+            change.accept(this.arenas[hidden]);
+            this.published = hidden;
+
+            int previousVersion = this.version;
+            int nextVersion = 1 - previousVersion;
+            this.awaitReaders(nextVersion);
+            this.version = nextVersion;
+            this.awaitReaders(previousVersion);
+
+            change.accept(this.arenas[1 - hidden]);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    // Departures are summed first: every reader counted there has already arrived, so equal sums mean
+    // nobody is left on this version.
+    private void awaitReaders(int version) {
+        while (this.departures[version].sum() != this.arrivals[version].sum()) {
+            Thread.yield();
+        }
+    }
+
+    private static List<Battlecard> copyOf(Iterable<Battlecard> cards) {
+        List<Battlecard> copy = new ArrayList<>();
+        cards.forEach(copy::add);
+        return copy;
+    }
+}
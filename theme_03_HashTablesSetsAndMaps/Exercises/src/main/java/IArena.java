@@ -1,3 +1,5 @@
+import java.util.Map;
+
 public interface IArena extends Iterable<Battlecard> {
     void add(Battlecard card);
 
@@ -7,6 +9,8 @@ public interface IArena extends Iterable<Battlecard> {
 
     void changeCardType(int id, CardType type);
 
+    void changeCardTypes(Map<Integer, CardType> types);
+
     Battlecard getById(int id);
 
     void removeById(int id);
@@ -0,0 +1,4 @@
+@FunctionalInterface
+public interface IntObjConsumer<V> {
+    void accept(int key, V value);
+}
@@ -1,24 +1,60 @@
 import java.util.*;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 
 public class RoyaleArena implements IArena {
+    private static final Comparator<Battlecard> BY_SWAG_DESCENDING_THEN_ID =
+            Comparator.comparingDouble(Battlecard::getSwag)
+                    .reversed()
+                    .thenComparing(Battlecard::getId);
+    private static final Comparator<Battlecard> BY_SWAG_THEN_ID =
+            Comparator.comparingDouble(Battlecard::getSwag)
+                    .thenComparing(Battlecard::getId);
+
     //    private Set<Battlecard> battlecards;
     private Map<Integer, Battlecard> cardsByIds;
-    private Map<CardType, Set<Battlecard>> cardsByTypes;
+    // Each bucket is ordered by Battlecard.compareTo (damage descending, then id), so damage queries are views.
+    private Map<CardType, NavigableSet<Battlecard>> cardsByTypes;
+    private Map<String, NavigableSet<Battlecard>> cardsByNames;
+    // Cards with equal swag keep their insertion order, the same order cardsByIds iterates in. The buckets
+    // are keyed by id because Battlecard.hashCode changes with the card type.
+    private NavigableMap<Double, Map<Integer, Battlecard>> cardsBySwag;
+    private NavigableSet<Battlecard> cardsByLeastSwag;
+    // Names in the order getAllByNameAndSwag lists them: keyed by the sequence of their oldest surviving card.
+    private Map<String, NameGroup> nameGroups;
+    private NavigableMap<Long, NameGroup> nameGroupsInOrder;
+    private long nextSequence;
 
     public RoyaleArena() {
 //        this.battlecards = new HashSet<>();
         this.cardsByIds = new LinkedHashMap<>();
         this.cardsByTypes = new HashMap<>();
+        this.cardsByNames = new HashMap<>();
+        this.cardsBySwag = new TreeMap<>();
+        this.cardsByLeastSwag = new TreeSet<>(BY_SWAG_THEN_ID);
+        this.nameGroups = new HashMap<>();
+        this.nameGroupsInOrder = new TreeMap<>();
     }
 
     @Override
     public void add(Battlecard card) {
-        this.cardsByIds.putIfAbsent(card.getId(), card);
-        this.cardsByTypes.putIfAbsent(card.getType(), new TreeSet<>(Battlecard::compareTo));
-        this.cardsByTypes.get(card.getType()).add(card);
+        if (this.cardsByIds.putIfAbsent(card.getId(), card) != null) {
+            return;
+        }
+
+        this.cardsByTypes.computeIfAbsent(card.getType(), t -> new TreeSet<>(Battlecard::compareTo)).add(card);
+
+        this.cardsByNames.computeIfAbsent(card.getName(), n -> new TreeSet<>(BY_SWAG_DESCENDING_THEN_ID)).add(card);
+        this.cardsBySwag.computeIfAbsent(card.getSwag(), s -> new LinkedHashMap<>()).put(card.getId(), card);
+        this.cardsByLeastSwag.add(card);
+
+        long sequence = this.nextSequence++;
+        NameGroup group = this.nameGroups.get(card.getName());
+        if (group == null) {
+            group = new NameGroup();
+            this.nameGroups.put(card.getName(), group);
+            this.nameGroupsInOrder.put(sequence, group);
+        }
+        group.add(new SequencedCard(card, sequence));
     }
 
     @Override
@@ -38,7 +74,42 @@ public class RoyaleArena implements IArena {
             throw new IllegalArgumentException("No card with id: " + id);
         }
 
+        if (battlecard.getType() == type) {
+            return;
+        }
+
+        this.cardsByTypes.get(battlecard.getType()).remove(battlecard);
         battlecard.setType(type);
+        this.cardsByTypes.computeIfAbsent(type, t -> new TreeSet<>(Battlecard::compareTo)).add(battlecard);
+    }
+
+    @Override
+    public void changeCardTypes(Map<Integer, CardType> types) {
+        List<Battlecard> battlecards = new ArrayList<>(types.size());
+        for (Integer id : types.keySet()) {
+            Battlecard battlecard = this.cardsByIds.get(id);
+            if (battlecard == null) {
+                throw new IllegalArgumentException("No card with id: " + id);
+            }
+            battlecards.add(battlecard);
+        }
+
+        // Every card moves out of its old bucket before any bucket is refilled, one addAll per target type.
+        Map<CardType, List<Battlecard>> moves = new EnumMap<>(CardType.class);
+        for (Battlecard battlecard : battlecards) {
+            CardType type = types.get(battlecard.getId());
+            if (battlecard.getType() == type) {
+                continue;
+            }
+
+            this.cardsByTypes.get(battlecard.getType()).remove(battlecard);
+            battlecard.setType(type);
+            moves.computeIfAbsent(type, t -> new ArrayList<>()).add(battlecard);
+        }
+
+        for (Map.Entry<CardType, List<Battlecard>> move : moves.entrySet()) {
+            this.cardsByTypes.computeIfAbsent(move.getKey(), t -> new TreeSet<>(Battlecard::compareTo)).addAll(move.getValue());
+        }
     }
 
     @Override
@@ -59,94 +130,151 @@ public class RoyaleArena implements IArena {
         }
 
         this.cardsByTypes.get(battlecard.getType()).remove(battlecard);
+
+        removeFromIndex(this.cardsByNames, battlecard.getName(), battlecard);
+
+        Map<Integer, Battlecard> withSameSwag = this.cardsBySwag.get(battlecard.getSwag());
+        withSameSwag.remove(id);
+        if (withSameSwag.isEmpty()) {
+            this.cardsBySwag.remove(battlecard.getSwag());
+        }
+
+        this.cardsByLeastSwag.remove(battlecard);
+
+        NameGroup group = this.nameGroups.get(battlecard.getName());
+        long firstSequence = group.firstSequence();
+        group.remove(id);
+        if (group.isEmpty()) {
+            this.nameGroups.remove(battlecard.getName());
+            this.nameGroupsInOrder.remove(firstSequence);
+        } else if (group.firstSequence() != firstSequence) {
+            this.nameGroupsInOrder.remove(firstSequence);
+            this.nameGroupsInOrder.put(group.firstSequence(), group);
+        }
+    }
+
+    // Same as changeCardType, except that the indexed card is not mutated: a copy with the new type takes
+    // its place in every index, at the same position in insertion order. Cards shared with another arena
+    // stay untouched.
+    void replaceCardType(int id, CardType type) {
+        Battlecard battlecard = this.cardsByIds.get(id);
+        if (battlecard == null) {
+            throw new IllegalArgumentException("No card with id: " + id);
+        }
+        if (battlecard.getType() == type) {
+            return;
+        }
+
+        Battlecard card = new Battlecard(id, type, battlecard.getName(), battlecard.getDamage(), battlecard.getSwag());
+
+        this.cardsByIds.put(card.getId(), card);
+
+        this.cardsByTypes.get(battlecard.getType()).remove(battlecard);
+        this.cardsByTypes.computeIfAbsent(card.getType(), t -> new TreeSet<>(Battlecard::compareTo)).add(card);
+
+        NavigableSet<Battlecard> withSameName = this.cardsByNames.get(card.getName());
+        withSameName.remove(battlecard);
+        withSameName.add(card);
+
+        this.cardsBySwag.get(card.getSwag()).put(card.getId(), card);
+
+        this.cardsByLeastSwag.remove(battlecard);
+        this.cardsByLeastSwag.add(card);
+
+        this.nameGroups.get(card.getName()).replace(card);
+    }
+
+    // replaceCardType for several cards; nothing changes unless every id is present.
+    void replaceCardTypes(Map<Integer, CardType> types) {
+        for (Integer id : types.keySet()) {
+            if (!this.cardsByIds.containsKey(id)) {
+                throw new IllegalArgumentException("No card with id: " + id);
+            }
+        }
+
+        for (Map.Entry<Integer, CardType> entry : types.entrySet()) {
+            this.replaceCardType(entry.getKey(), entry.getValue());
+        }
     }
 
     @Override
     public Iterable<Battlecard> getByCardType(CardType type) {
-        return getBattleCardsByType(type);
+        return Collections.unmodifiableNavigableSet(getBattleCardsByType(type));
     }
 
     @Override
     public Iterable<Battlecard> getByTypeAndDamageRangeOrderedByDamageThenById(CardType type, int lo, int hi) {
-        Set<Battlecard> battleCards = getBattleCardsByType(type);
-        List<Battlecard> result = battleCards
-                .stream()
-                .filter(c -> c.getDamage() > lo && c.getDamage() < hi)
-                .sorted(Battlecard::compareTo)
-                .collect(Collectors.toList());
+        NavigableSet<Battlecard> battleCards = getBattleCardsByType(type);
+
+        if (!(lo < hi)) {
+            throw new UnsupportedOperationException();
+        }
+
+        // Both ends exclusive: the probes sort after every card with damage hi and before every card with damage lo.
+        NavigableSet<Battlecard> result = battleCards.subSet(
+                damageProbe(hi, Integer.MAX_VALUE), false,
+                damageProbe(lo, Integer.MIN_VALUE), false);
 
         if (result.isEmpty()) {
             throw new UnsupportedOperationException();
         }
 
-        return result;
+        return Collections.unmodifiableNavigableSet(result);
     }
 
     @Override
     public Iterable<Battlecard> getByCardTypeAndMaximumDamage(CardType type, double damage) {
-        Set<Battlecard> battleCards = getBattleCardsByType(type);
+        NavigableSet<Battlecard> battleCards = getBattleCardsByType(type);
 
-        List<Battlecard> result = battleCards
-                .stream()
-                .filter(c -> c.getDamage() <= damage)
-                .sorted(Battlecard::compareTo)
-                .collect(Collectors.toList());
+        // Damage descends through the set, so "at most damage" is its tail.
+        NavigableSet<Battlecard> result = battleCards.tailSet(damageProbe(damage, Integer.MIN_VALUE), true);
 
         if (result.isEmpty()) {
             throw new UnsupportedOperationException();
         }
 
-        return result;
+        return Collections.unmodifiableNavigableSet(result);
     }
 
     @Override
     public Iterable<Battlecard> getByNameOrderedBySwagDescending(String name) {
-        List<Battlecard> battleCards = getBattleCardsByPredicate(c -> c.getName().equals(name));
+        NavigableSet<Battlecard> battleCards = this.cardsByNames.get(name);
 
-        if (battleCards.isEmpty()) {
+        if (battleCards == null || battleCards.isEmpty()) {
             throw new UnsupportedOperationException();
         }
 
-        battleCards.sort(Comparator.comparingDouble(Battlecard::getSwag)
-                .reversed()
-                .thenComparing(Battlecard::getId));
-
-        return battleCards;
+        return new ArrayList<>(battleCards);
     }
 
     @Override
     public Iterable<Battlecard> getByNameAndSwagRange(String name, double lo, double hi) {
-        List<Battlecard> battleCards = getBattleCardsByPredicate(
-                c -> c.getSwag() >= lo && c.getSwag() < hi && c.getName().equals(name)
-        );
+        NavigableSet<Battlecard> battleCards = this.cardsByNames.get(name);
 
-        if (battleCards.isEmpty()) {
+        if (battleCards == null || !(lo < hi)) {
             throw new UnsupportedOperationException();
         }
 
-        battleCards.sort(Comparator.comparingDouble(Battlecard::getSwag)
-                .reversed()
-                .thenComparing(Battlecard::getId));
+        // The set runs from high to low swag: skip everything with swag >= hi, stop after swag == lo.
+        NavigableSet<Battlecard> inRange = battleCards.subSet(
+                swagProbe(hi), false,
+                swagProbe(lo), true);
 
-        return battleCards;
+        if (inRange.isEmpty()) {
+            throw new UnsupportedOperationException();
+        }
+
+        return new ArrayList<>(inRange);
     }
 
     @Override
     public Iterable<Battlecard> getAllByNameAndSwag() {
-        Map<String, Battlecard> battleCards = new LinkedHashMap<>();
-        for (Battlecard battlecard : cardsByIds.values()) {
-            if (!battleCards.containsKey(battlecard.getName())) {
-                battleCards.put(battlecard.getName(), battlecard);
-            } else {
-                double oldSwag = battleCards.get(battlecard.getName()).getSwag();
-                double newSwag = battlecard.getSwag();
-                if (newSwag > oldSwag) {
-                    battleCards.put(battlecard.getName(), battlecard);
-                }
-            }
+        List<Battlecard> battleCards = new ArrayList<>(this.nameGroupsInOrder.size());
+        for (NameGroup group : this.nameGroupsInOrder.values()) {
+            battleCards.add(group.best());
         }
 
-        return battleCards.values();
+        return battleCards;
     }
 
     @Override
@@ -154,19 +282,32 @@ public class RoyaleArena implements IArena {
         if (n > this.count()) {
             throw new UnsupportedOperationException();
         }
+        if (n < 0) {
+            throw new IllegalArgumentException(Integer.toString(n));
+        }
 
-        return this.cardsByIds.values().stream()
-                .sorted(Comparator.comparingDouble(Battlecard::getSwag)
-                        .thenComparing(Battlecard::getId))
-                .limit(n)
-                .collect(Collectors.toList());
+        List<Battlecard> battleCards = new ArrayList<>(n);
+        Iterator<Battlecard> iterator = this.cardsByLeastSwag.iterator();
+        while (battleCards.size() < n) {
+            battleCards.add(iterator.next());
+        }
+
+        return battleCards;
     }
 
     @Override
     public Iterable<Battlecard> getAllInSwagRange(double lo, double hi) {
-        return getBattleCardsByPredicate((c -> c.getSwag() >= lo && c.getSwag() <= hi))
-                .stream().sorted(Comparator.comparingDouble(Battlecard::getSwag))
-                .collect(Collectors.toList());
+        List<Battlecard> battleCards = new ArrayList<>();
+
+        if (lo > hi) {
+            return battleCards;
+        }
+
+        for (Map<Integer, Battlecard> withSameSwag : this.cardsBySwag.subMap(lo, true, hi, true).values()) {
+            battleCards.addAll(withSameSwag.values());
+        }
+
+        return battleCards;
     }
 
     @Override
@@ -174,8 +315,8 @@ public class RoyaleArena implements IArena {
         return cardsByIds.values().iterator();
     }
 
-    private Set<Battlecard> getBattleCardsByType(CardType type) {
-        Set<Battlecard> battleCards = this.cardsByTypes.get(type);
+    private NavigableSet<Battlecard> getBattleCardsByType(CardType type) {
+        NavigableSet<Battlecard> battleCards = this.cardsByTypes.get(type);
         if (battleCards == null || battleCards.isEmpty()) {
             throw new UnsupportedOperationException();
         }
@@ -183,15 +324,76 @@ public class RoyaleArena implements IArena {
         return battleCards;
     }
 
-    private List<Battlecard> getBattleCardsByPredicate(Predicate<Battlecard> predicate) {
-        List<Battlecard> battleCards = new ArrayList<>();
+    // Only damage and id take part in Battlecard.compareTo.
+    private static Battlecard damageProbe(double damage, int id) {
+        return new Battlecard(id, null, null, damage, 0);
+    }
 
-        for (Battlecard battlecard : cardsByIds.values()) {
-            if (predicate.test(battlecard)) {
-                battleCards.add(battlecard);
-            }
+    // Sorts after every real card with the same swag under BY_SWAG_DESCENDING_THEN_ID.
+    private static Battlecard swagProbe(double swag) {
+        return new Battlecard(Integer.MAX_VALUE, null, null, 0, swag);
+    }
+
+    private static void removeFromIndex(Map<String, NavigableSet<Battlecard>> index, String key, Battlecard card) {
+        NavigableSet<Battlecard> battleCards = index.get(key);
+        battleCards.remove(card);
+
+        if (battleCards.isEmpty()) {
+            index.remove(key);
         }
+    }
 
-        return battleCards;
+    // A card together with the order it was added in; cardsByIds iterates in the same order.
+    private static class SequencedCard {
+        private static final Comparator<SequencedCard> BY_SWAG_DESCENDING_THEN_SEQUENCE =
+                Comparator.comparingDouble((SequencedCard c) -> c.card.getSwag())
+                        .reversed()
+                        .thenComparingLong(c -> c.sequence);
+
+        private final Battlecard card;
+        private final long sequence;
+
+        private SequencedCard(Battlecard card, long sequence) {
+            this.card = card;
+            this.sequence = sequence;
+        }
+    }
+
+    // All cards with one name. The best card has the highest swag; on equal swag the oldest one wins,
+    // which is the card a scan in insertion order would keep.
+    private static class NameGroup {
+        private Map<Integer, SequencedCard> inOrder = new LinkedHashMap<>();
+        private NavigableSet<SequencedCard> bySwag = new TreeSet<>(SequencedCard.BY_SWAG_DESCENDING_THEN_SEQUENCE);
+
+
+        private void add(SequencedCard card) {
+            this.inOrder.put(card.card.getId(), card);
+            this.bySwag.add(card);
+        }
+
+        private void remove(int id) {
+            this.bySwag.remove(this.inOrder.remove(id));
+        }
+
+        // The comparator only looks at swag and sequence, so the replacement takes the same place.
+        private void replace(Battlecard card) {
+            SequencedCard old = this.inOrder.get(card.getId());
+            SequencedCard replacement = new SequencedCard(card, old.sequence);
+            this.inOrder.put(card.getId(), replacement);
+            this.bySwag.remove(old);
+            this.bySwag.add(replacement);
+        }
+
+        private boolean isEmpty() {
+            return this.inOrder.isEmpty();
+        }
+
+        private long firstSequence() {
+            return this.inOrder.values().iterator().next().sequence;
+        }
+
+        private Battlecard best() {
+            return this.bySwag.first().card;
+        }
     }
 }
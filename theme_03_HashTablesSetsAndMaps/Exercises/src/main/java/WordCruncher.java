@@ -1,15 +1,39 @@
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+// Finds every way to write target as a sequence of the given words, using each word at most as many times
+// as it appears in the list. One instance holds the index of a single problem and never changes after
+// construction, so separate problems can be solved at the same time.
 public class WordCruncher {
-    private static Map<String, Integer> wordsByCounts = new HashMap<>();
-    private static Map<Integer, TreeSet<String>> tree = new TreeMap<>();
-    private static String target;
-    private static List<String> buffer = new ArrayList<>();
-    private static List<String> out = new ArrayList<>();
+    private final String target;
+    private final Map<String, Integer> wordsByCounts;
+    private final NavigableMap<Integer, TreeSet<String>> tree;
+    // reachesEnd[i] is true when some chain of matched words leads from position i to the end of target.
+    private final boolean[] reachesEnd;
+
+    private WordCruncher(List<String> words, String target) {
+        this.target = target;
+        this.wordsByCounts = new HashMap<>();
+
+        for (String string : words) {
+            this.wordsByCounts.putIfAbsent(string, 0);
+            this.wordsByCounts.put(string, this.wordsByCounts.get(string) + 1);
+        }
+
+        // One pass over target finds every occurrence of every word; words that never occur get no entry.
+        this.tree = new AhoCorasick(this.wordsByCounts.keySet()).matchesByPosition(target);
+
+        this.reachesEnd = this.markReachablePositions();
+    }
 
     public static void main(String[] args) throws IOException {
         BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
@@ -18,55 +42,102 @@ public class WordCruncher {
                         .split(", "))
                 .collect(Collectors.toList());
 
-        target = reader.readLine();
-
-        inputStrings = inputStrings.stream()
-                .filter(str -> target.contains(str))
-                .collect(Collectors.toList());
-
-
-        for (String string : inputStrings) {
-            wordsByCounts.putIfAbsent(string, 0);
-            wordsByCounts.put(string, wordsByCounts.get(string) + 1);
+        String target = reader.readLine();
 
-            int index = target.indexOf(string);
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out));
+        int[] written = new int[1];
 
-            while (index != -1) {
-                if (!tree.containsKey(index)) {
-                    tree.put(index, new TreeSet<>());
+        solve(inputStrings, target, words -> {
+            try {
+                if (written[0]++ > 0) {
+                    out.newLine();
                 }
+                out.write(String.join(" ", words));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
 
-                tree.get(index).add(string);
+        out.newLine();
+        out.flush();
+    }
 
-                index = target.indexOf(string, index + 1);
-            }
+    // Passes every segmentation to action on the calling thread, in lexicographic order of its words.
+    public static void solve(List<String> words, String target, Consumer<List<String>> action) {
+        WordCruncher cruncher = new WordCruncher(words, target);
+        cruncher.dfsTraversal(0, new HashMap<>(cruncher.wordsByCounts), new ArrayList<>(), action);
+    }
 
+    // Splits the search at the words that can start target: each one becomes a task in pool with its own
+    // copy of the word counts. action is called from the pool's threads, concurrently and in no particular
+    // order, so it has to be thread-safe.
+    public static void solve(List<String> words, String target, Consumer<List<String>> action, ForkJoinPool pool) {
+        WordCruncher cruncher = new WordCruncher(words, target);
+        if (target.isEmpty()) {
+            action.accept(Collections.emptyList());
+            return;
+        }
+        if (!cruncher.reachesEnd[0]) {
+            return;
         }
 
-        dfsTraversal(0);
+        List<RecursiveAction> branches = new ArrayList<>();
+        for (String str : cruncher.tree.get(0)) {
+            if (cruncher.reachesEnd[str.length()]) {
+                branches.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        Map<String, Integer> counts = new HashMap<>(cruncher.wordsByCounts);
+                        counts.put(str, counts.get(str) - 1);
+
+                        List<String> buffer = new ArrayList<>();
+                        buffer.add(str);
+                        cruncher.dfsTraversal(str.length(), counts, buffer, action);
+                    }
+                });
+            }
+        }
 
-        StringBuilder builder = new StringBuilder();
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(branches);
+            }
+        });
+    }
 
-        for (int i = 0; i < out.size(); i++) {
-            builder.append(out.get(i))
-                    .append(System.lineSeparator());
+    // Walks target backwards: a position reaches the end if one of its words lands on a position that does.
+    // Word counts are ignored, so this only rules out positions that can never be completed.
+    private boolean[] markReachablePositions() {
+        boolean[] reachesEnd = new boolean[this.target.length() + 1];
+        reachesEnd[this.target.length()] = true;
+
+        for (Map.Entry<Integer, TreeSet<String>> entry : this.tree.descendingMap().entrySet()) {
+            for (String str : entry.getValue()) {
+                if (reachesEnd[entry.getKey() + str.length()]) {
+                    reachesEnd[entry.getKey()] = true;
+                    break;
+                }
+            }
         }
 
-        System.out.println(builder.toString().trim());
+        return reachesEnd;
     }
 
-    private static void dfsTraversal(int index) {
-        if (index == target.length()) {
-            printResult();
+    // Every word was matched at the position it is placed on, so a path that reaches the end spells target.
+    private void dfsTraversal(int index, Map<String, Integer> wordsByCounts, List<String> buffer,
+                              Consumer<List<String>> action) {
+        if (index == this.target.length()) {
+            action.accept(Collections.unmodifiableList(new ArrayList<>(buffer)));
         } else {
-            if (!tree.containsKey(index)) {
+            if (!this.reachesEnd[index]) {
                 return;
             }
-            for (String str : tree.get(index)) {
-                if (wordsByCounts.get(str) > 0) {
+            for (String str : this.tree.get(index)) {
+                if (this.reachesEnd[index + str.length()] && wordsByCounts.get(str) > 0) {
                     buffer.add(str);
                     wordsByCounts.put(str, wordsByCounts.get(str) - 1);
-                    dfsTraversal(index + str.length());
+                    this.dfsTraversal(index + str.length(), wordsByCounts, buffer, action);
 
                     wordsByCounts.put(str, wordsByCounts.get(str) + 1);
                     buffer.remove(buffer.size() - 1);
@@ -74,13 +145,4 @@ public class WordCruncher {
             }
         }
     }
-
-    private static void printResult() {
-        String result = String.join("", buffer);
-        if (result.equals(target)) {
-            out.add(String.join(" ", buffer));
-        }
-    }
-
-
 }
@@ -0,0 +1,52 @@
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class AhoCorasickTest {
+
+    @Test
+    public void testFindsOverlappingAndNestedWords() {
+        AhoCorasick matcher = new AhoCorasick(Arrays.asList("he", "she", "his", "hers", "e"));
+
+        List<String> matches = new ArrayList<>();
+        matcher.forEachMatch("ushers", (position, word) -> matches.add(position + ":" + word));
+
+        assertEquals(Arrays.asList("1:she", "2:he", "3:e", "2:hers"), matches);
+    }
+
+    @Test
+    public void testIgnoresDuplicateAndEmptyWords() {
+        AhoCorasick matcher = new AhoCorasick(Arrays.asList("ab", "ab", "", "b"));
+
+        assertEquals(2, matcher.size());
+    }
+
+    @Test
+    public void testMatchesByPositionAgreesWithIndexOf() {
+        Random random = new Random(7);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            words.add(randomString(random, 1 + random.nextInt(4)));
+        }
+        String text = randomString(random, 2000);
+
+        NavigableMap<Integer, TreeSet<String>> expected = new TreeMap<>();
+        for (String word : words) {
+            for (int index = text.indexOf(word); index != -1; index = text.indexOf(word, index + 1)) {
+                expected.computeIfAbsent(index, p -> new TreeSet<>()).add(word);
+            }
+        }
+
+        assertEquals(expected, new AhoCorasick(words).matchesByPosition(text));
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(3)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ColumnarRoyaleArenaBenchmark {
+
+    private static final int CARDS = 1_000_000;
+    private static final int QUERIES = 200;
+    private static final int ROUNDS = 3;
+
+    private static volatile double sink;
+
+    public static void main(String[] args) {
+        RoyaleArena arena = new RoyaleArena();
+        ColumnarRoyaleArena columnarArena = new ColumnarRoyaleArena();
+        List<Battlecard> cards = new ArrayList<>(CARDS);
+        Random random = new Random(42);
+        CardType[] types = CardType.values();
+
+        for (int id = 0; id < CARDS; id++) {
+            Battlecard card = new Battlecard(id, types[random.nextInt(types.length)], "card" + random.nextInt(10_000),
+                    random.nextInt(100_000), random.nextInt(100_000));
+            cards.add(card);
+            arena.add(card);
+            columnarArena.add(card);
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d, %,d cards, %,d queries%n", round, CARDS, QUERIES);
+
+            long start = System.nanoTime();
+            long seen = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                double lo = (i * 397) % 90_000;
+                for (Battlecard card : cards) {
+                    if (card.getSwag() >= lo && card.getSwag() <= lo + 10_000) {
+                        seen++;
+                    }
+                }
+            }
+            report("swag range, object scan", seen, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            seen = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                double lo = (i * 397) % 90_000;
+                seen += columnarArena.countInSwagRange(lo, lo + 10_000);
+            }
+            report("swag range, column scan", seen, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            seen = 0;
+            for (int i = 0; i < QUERIES / 10; i++) {
+                double lo = (i * 397) % 90_000;
+                for (Battlecard ignored : arena.getAllInSwagRange(lo, lo + 10_000)) {
+                    seen++;
+                }
+            }
+            report("getAllInSwagRange, TreeMap", seen * 10, (System.nanoTime() - start) * 10);
+
+            start = System.nanoTime();
+            seen = 0;
+            for (int i = 0; i < QUERIES / 10; i++) {
+                double lo = (i * 397) % 90_000;
+                for (Battlecard ignored : columnarArena.getAllInSwagRange(lo, lo + 10_000)) {
+                    seen++;
+                }
+            }
+            report("getAllInSwagRange, columns", seen * 10, (System.nanoTime() - start) * 10);
+
+            start = System.nanoTime();
+            double total = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                double[] sums = new double[types.length];
+                for (Battlecard card : arena) {
+                    sums[card.getType().ordinal()] += card.getDamage();
+                }
+                total += sums[i % types.length];
+            }
+            sink = total;
+            report("damage per type, objects", 0, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            total = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                total += columnarArena.damageSumsByType()[i % types.length];
+            }
+            sink = total;
+            report("damage per type, columns", 0, System.nanoTime() - start);
+        }
+    }
+
+    private static void report(String name, long seen, long nanos) {
+        System.out.printf("  %-30s %8.2f ms/query (%,d cards matched)%n", name, nanos / 1e6 / QUERIES, seen);
+    }
+}
@@ -0,0 +1,61 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ColumnarRoyaleArenaTest {
+
+    @Test
+    public void testRemoveKeepsInsertionOrderAfterCompaction() {
+        ColumnarRoyaleArena royaleArena = new ColumnarRoyaleArena();
+        for (int id = 0; id < 10; id++) {
+            royaleArena.add(new Battlecard(id, CardType.MELEE, "test name", 100, 50));
+        }
+        for (int id = 0; id < 10; id += 2) {
+            royaleArena.removeById(id);
+        }
+        royaleArena.removeById(9);
+
+        List<Battlecard> battlecards = new ArrayList<>();
+        royaleArena.getAllInSwagRange(50, 50).forEach(battlecards::add);
+
+        assertEquals(4, royaleArena.count());
+        assertEquals(4, battlecards.size());
+        assertEquals(1, battlecards.get(0).getId());
+        assertEquals(3, battlecards.get(1).getId());
+        assertEquals(5, battlecards.get(2).getId());
+        assertEquals(7, battlecards.get(3).getId());
+    }
+
+    @Test
+    public void testReturnedCardsAreCopies() {
+        ColumnarRoyaleArena royaleArena = new ColumnarRoyaleArena();
+        Battlecard battlecard = new Battlecard(1, CardType.MELEE, "test name", 100, 50);
+        royaleArena.add(battlecard);
+
+        royaleArena.getById(1).setType(CardType.SPELL);
+        royaleArena.changeCardType(1, CardType.RANGED);
+
+        assertEquals(CardType.MELEE, battlecard.getType());
+        assertEquals(CardType.RANGED, royaleArena.getById(1).getType());
+    }
+
+    @Test
+    public void testDamageSumsByTypeAndSwagCount() {
+        ColumnarRoyaleArena royaleArena = new ColumnarRoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "first", 10, 5));
+        royaleArena.add(new Battlecard(2, CardType.MELEE, "second", 20, 15));
+        royaleArena.add(new Battlecard(3, CardType.SPELL, "first", 40, 25));
+        royaleArena.removeById(2);
+
+        double[] sums = royaleArena.damageSumsByType();
+
+        assertEquals(10, sums[CardType.MELEE.ordinal()], 0);
+        assertEquals(40, sums[CardType.SPELL.ordinal()], 0);
+        assertEquals(0, sums[CardType.BUILDING.ordinal()], 0);
+        assertEquals(2, royaleArena.countInSwagRange(5, 25));
+        assertEquals(1, royaleArena.countInSwagRange(6, 30));
+    }
+}
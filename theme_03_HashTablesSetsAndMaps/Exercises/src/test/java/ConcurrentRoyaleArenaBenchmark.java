@@ -0,0 +1,174 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ConcurrentRoyaleArenaBenchmark {
+
+    private static final int CARDS = 100_000;
+    private static final int NAMES = 500;
+    private static final int WRITE_PER_MILLE = 10;
+    private static final long DURATION_MILLIS = 2000;
+
+    private static volatile long sink;
+
+    private interface Arena {
+        void add(Battlecard card);
+
+        void removeById(int id);
+
+        long query(int id, String name);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            System.out.printf("%d threads, %.1f%% writes, %,d cards%n", threads, WRITE_PER_MILLE / 10.0, CARDS);
+
+            ConcurrentRoyaleArena concurrentArena = new ConcurrentRoyaleArena();
+            run("ConcurrentRoyaleArena", threads, new Arena() {
+                public void add(Battlecard card) {
+                    concurrentArena.add(card);
+                }
+
+                public void removeById(int id) {
+                    concurrentArena.removeById(id);
+                }
+
+                public long query(int id, String name) {
+                    return ConcurrentRoyaleArenaBenchmark.query(concurrentArena, id, name);
+                }
+            });
+
+            RoyaleArena lockedArena = new RoyaleArena();
+            ReadWriteLock lock = new ReentrantReadWriteLock();
+            run("read-write locked RoyaleArena", threads, new Arena() {
+                public void add(Battlecard card) {
+                    lock.writeLock().lock();
+                    try {
+                        lockedArena.add(card);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+
+                public void removeById(int id) {
+                    lock.writeLock().lock();
+                    try {
+                        lockedArena.removeById(id);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+
+                public long query(int id, String name) {
+                    lock.readLock().lock();
+                    try {
+                        return ConcurrentRoyaleArenaBenchmark.query(lockedArena, id, name);
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                }
+            });
+
+            RoyaleArena synchronizedArena = new RoyaleArena();
+            run("synchronized RoyaleArena", threads, new Arena() {
+                public void add(Battlecard card) {
+                    synchronized (synchronizedArena) {
+                        synchronizedArena.add(card);
+                    }
+                }
+
+                public void removeById(int id) {
+                    synchronized (synchronizedArena) {
+                        synchronizedArena.removeById(id);
+                    }
+                }
+
+                public long query(int id, String name) {
+                    synchronized (synchronizedArena) {
+                        return ConcurrentRoyaleArenaBenchmark.query(synchronizedArena, id, name);
+                    }
+                }
+            });
+        }
+    }
+
+    // A matchmaking-style read: one lookup by id, one name range query and the ten cheapest cards.
+    private static long query(IArena arena, int id, String name) {
+        long seen = 0;
+        if (arena.contains(new Battlecard(id, null, null, 0, 0))) {
+            seen += (long) arena.getById(id).getDamage();
+        }
+        try {
+            for (Battlecard ignored : arena.getByNameAndSwagRange(name, 100, 500)) {
+                seen++;
+            }
+        } catch (UnsupportedOperationException ignored) {
+        }
+        for (Battlecard ignored : arena.findFirstLeastSwag(Math.min(10, arena.count()))) {
+            seen++;
+        }
+        return seen;
+    }
+
+    private static void run(String name, int threads, Arena arena) throws InterruptedException {
+        for (int id = 0; id < CARDS; id++) {
+            arena.add(card(id));
+        }
+
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long localReads = 0;
+                long localWrites = 0;
+                long seen = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (((localReads + localWrites) & 63) != 0 || System.currentTimeMillis() < deadline) {
+                    int id = random.nextInt(CARDS);
+                    if (random.nextInt(1000) < WRITE_PER_MILLE) {
+                        // Replace a card with a fresh one under the same id so the arena size stays stable.
+                        try {
+                            arena.removeById(id);
+                        } catch (UnsupportedOperationException ignored) {
+                        }
+                        arena.add(card(id));
+                        localWrites += 2;
+                    } else {
+                        seen += arena.query(id, "card" + random.nextInt(NAMES));
+                        localReads++;
+                    }
+                }
+                reads.add(localReads);
+                writes.add(localWrites);
+                sink += seen;
+                done.countDown();
+            }).start();
+        }
+
+        start.countDown();
+        done.await();
+
+        double seconds = DURATION_MILLIS / 1000.0;
+        System.out.printf("  %-30s %,12.0f reads/s %,10.0f writes/s%n", name, reads.sum() / seconds, writes.sum() / seconds);
+    }
+
+    private static Battlecard card(int id) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Battlecard(id, CardType.values()[id % CardType.values().length], "card" + random.nextInt(NAMES),
+                random.nextInt(1_000), random.nextInt(1_000));
+    }
+}
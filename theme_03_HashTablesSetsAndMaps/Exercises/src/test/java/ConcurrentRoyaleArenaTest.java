@@ -0,0 +1,99 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentRoyaleArenaTest {
+
+    @Test
+    public void testIteratorKeepsSnapshot() {
+        ConcurrentRoyaleArena royaleArena = new ConcurrentRoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "test name", 100, 50));
+        royaleArena.add(new Battlecard(2, CardType.MELEE, "test name", 100, 50));
+
+        Iterator<Battlecard> iterator = royaleArena.iterator();
+        royaleArena.removeById(1);
+        royaleArena.add(new Battlecard(3, CardType.MELEE, "test name", 100, 50));
+
+        assertEquals(1, iterator.next().getId());
+        assertEquals(2, iterator.next().getId());
+        assertFalse(iterator.hasNext());
+        assertEquals(2, royaleArena.count());
+    }
+
+    @Test
+    public void testChangeTypeDoesNotMutateReturnedCard() {
+        ConcurrentRoyaleArena royaleArena = new ConcurrentRoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "test name", 100, 50));
+        Battlecard before = royaleArena.getById(1);
+
+        royaleArena.changeCardType(1, CardType.SPELL);
+
+        assertEquals(CardType.MELEE, before.getType());
+        assertEquals(CardType.SPELL, royaleArena.getById(1).getType());
+        assertEquals(1, royaleArena.getByCardType(CardType.SPELL).iterator().next().getId());
+    }
+
+    @Test
+    public void testFailedChangeTypesPublishesNothing() {
+        ConcurrentRoyaleArena royaleArena = new ConcurrentRoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "test name", 100, 50));
+
+        Map<Integer, CardType> types = new HashMap<>();
+        types.put(1, CardType.SPELL);
+        types.put(2, CardType.SPELL);
+
+        try {
+            royaleArena.changeCardTypes(types);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+
+        assertEquals(CardType.MELEE, royaleArena.getById(1).getType());
+    }
+
+    @Test
+    public void testReadersSeeConsistentIndexesWhileWriting() throws Exception {
+        ConcurrentRoyaleArena royaleArena = new ConcurrentRoyaleArena();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Cards are published in pairs, so a reader must never see an odd count.
+        List<Future<?>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> {
+            for (int i = 0; i < 500; i += 2) {
+                List<Battlecard> pair = new ArrayList<>();
+                pair.add(new Battlecard(i, CardType.MELEE, "test name", i, i));
+                pair.add(new Battlecard(i + 1, CardType.SPELL, "test name", i, i));
+                royaleArena.addAll(pair);
+            }
+            return null;
+        }));
+        for (int t = 0; t < 3; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    int total = 0;
+                    for (Battlecard ignored : royaleArena) {
+                        total++;
+                    }
+                    assertEquals(0, total % 2);
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(500, royaleArena.count());
+    }
+}
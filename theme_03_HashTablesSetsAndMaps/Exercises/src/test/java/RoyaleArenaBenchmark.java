@@ -0,0 +1,137 @@
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public class RoyaleArenaBenchmark {
+
+    private static final int CARDS = 1_000_000;
+    private static final int QUERIES = 2_000;
+    private static final int SORT_QUERIES = 10;
+    private static final int LEAST_SWAG = 20;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        RoyaleArena arena = new RoyaleArena();
+        Random random = new Random(42);
+        CardType[] types = CardType.values();
+
+        for (int id = 0; id < CARDS; id++) {
+            arena.add(new Battlecard(id, types[id % types.length], "card" + random.nextInt(10_000),
+                    random.nextInt(100_000), random.nextInt(1_000)));
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d, %,d cards, %,d queries%n", round, CARDS, QUERIES);
+
+            long start = System.nanoTime();
+            long seen = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                int lo = (i * 37) % 99_000;
+                seen += scanDamageRange(arena, types[i % types.length], lo, lo + 1_000).size();
+            }
+            report("damage range, scan + sort", seen, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            seen = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                int lo = (i * 37) % 99_000;
+                for (Battlecard ignored : arena.getByTypeAndDamageRangeOrderedByDamageThenById(types[i % types.length], lo, lo + 1_000)) {
+                    seen++;
+                }
+            }
+            report("damage range, subSet view", seen, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            seen = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                seen += scanMaximumDamage(arena, types[i % types.length], (i * 37) % 1_000).size();
+            }
+            report("maximum damage, scan + sort", seen, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            seen = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                for (Battlecard ignored : arena.getByCardTypeAndMaximumDamage(types[i % types.length], (i * 37) % 1_000)) {
+                    seen++;
+                }
+            }
+            report("maximum damage, tailSet view", seen, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            seen = 0;
+            for (int i = 0; i < SORT_QUERIES; i++) {
+                seen += sortLeastSwag(arena, LEAST_SWAG).size();
+            }
+            // Scaled up to QUERIES so the rows compare directly.
+            report("least swag, sort + limit", seen * QUERIES / SORT_QUERIES, (System.nanoTime() - start) * QUERIES / SORT_QUERIES);
+
+            start = System.nanoTime();
+            seen = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                for (Battlecard ignored : arena.findFirstLeastSwag(LEAST_SWAG)) {
+                    seen++;
+                }
+            }
+            report("least swag, swag index", seen, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            seen = 0;
+            for (int i = 0; i < SORT_QUERIES; i++) {
+                seen += scanBestByName(arena).size();
+            }
+            report("best by name, scan", seen * QUERIES / SORT_QUERIES, (System.nanoTime() - start) * QUERIES / SORT_QUERIES);
+
+            start = System.nanoTime();
+            seen = 0;
+            for (int i = 0; i < SORT_QUERIES; i++) {
+                for (Battlecard ignored : arena.getAllByNameAndSwag()) {
+                    seen++;
+                }
+            }
+            report("best by name, name groups", seen * QUERIES / SORT_QUERIES, (System.nanoTime() - start) * QUERIES / SORT_QUERIES);
+        }
+    }
+
+    // The previous implementation: filter the whole per-type bucket, then sort the matches.
+    private static List<Battlecard> scanDamageRange(RoyaleArena arena, CardType type, int lo, int hi) {
+        return StreamSupport.stream(arena.getByCardType(type).spliterator(), false)
+                .filter(c -> c.getDamage() > lo && c.getDamage() < hi)
+                .sorted(Battlecard::compareTo)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Battlecard> scanMaximumDamage(RoyaleArena arena, CardType type, double damage) {
+        return StreamSupport.stream(arena.getByCardType(type).spliterator(), false)
+                .filter(c -> c.getDamage() <= damage)
+                .sorted(Battlecard::compareTo)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Battlecard> sortLeastSwag(RoyaleArena arena, int n) {
+        return StreamSupport.stream(arena.spliterator(), false)
+                .sorted(Comparator.comparingDouble(Battlecard::getSwag)
+                        .thenComparing(Battlecard::getId))
+                .limit(n)
+                .collect(Collectors.toList());
+    }
+
+    private static Collection<Battlecard> scanBestByName(RoyaleArena arena) {
+        Map<String, Battlecard> battleCards = new LinkedHashMap<>();
+        for (Battlecard battlecard : arena) {
+            Battlecard best = battleCards.get(battlecard.getName());
+            if (best == null || battlecard.getSwag() > best.getSwag()) {
+                battleCards.put(battlecard.getName(), battlecard);
+            }
+        }
+        return battleCards.values();
+    }
+
+    private static void report(String name, long seen, long nanos) {
+        System.out.printf("  %-30s %8.2f us/query (%,d cards returned)%n", name, nanos / 1e3 / QUERIES, seen);
+    }
+}
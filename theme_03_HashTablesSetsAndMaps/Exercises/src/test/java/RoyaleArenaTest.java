@@ -1,5 +1,10 @@
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 
 public class RoyaleArenaTest {
@@ -47,4 +52,157 @@ public class RoyaleArenaTest {
         royaleArena.add(battlecard);
         royaleArena.removeById(2);
     }
+
+    @Test
+    public void testGetByNameAndSwagRangeExcludesHi() {
+        RoyaleArena royaleArena = new RoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "test name", 100, 50));
+        royaleArena.add(new Battlecard(2, CardType.MELEE, "test name", 100, 20));
+        royaleArena.add(new Battlecard(3, CardType.SPELL, "test name", 100, 30));
+        royaleArena.add(new Battlecard(4, CardType.SPELL, "other name", 100, 30));
+
+        List<Battlecard> battlecards = new ArrayList<>();
+        royaleArena.getByNameAndSwagRange("test name", 20, 50).forEach(battlecards::add);
+
+        assertEquals(2, battlecards.size());
+        assertEquals(3, battlecards.get(0).getId());
+        assertEquals(2, battlecards.get(1).getId());
+    }
+
+    @Test
+    public void testGetAllInSwagRangeAfterRemove() {
+        RoyaleArena royaleArena = new RoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "test name", 100, 50));
+        royaleArena.add(new Battlecard(2, CardType.MELEE, "test name", 100, 20));
+        royaleArena.add(new Battlecard(3, CardType.SPELL, "other name", 100, 20));
+        royaleArena.removeById(2);
+
+        List<Battlecard> battlecards = new ArrayList<>();
+        royaleArena.getAllInSwagRange(20, 50).forEach(battlecards::add);
+
+        assertEquals(2, battlecards.size());
+        assertEquals(3, battlecards.get(0).getId());
+        assertEquals(1, battlecards.get(1).getId());
+    }
+
+    @Test
+    public void testGetByTypeAndDamageRangeExcludesBounds() {
+        RoyaleArena royaleArena = new RoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "test name", 10, 50));
+        royaleArena.add(new Battlecard(2, CardType.MELEE, "test name", 20, 50));
+        royaleArena.add(new Battlecard(3, CardType.MELEE, "test name", 20, 50));
+        royaleArena.add(new Battlecard(4, CardType.MELEE, "test name", 30, 50));
+        royaleArena.add(new Battlecard(5, CardType.SPELL, "test name", 20, 50));
+
+        List<Battlecard> battlecards = new ArrayList<>();
+        royaleArena.getByTypeAndDamageRangeOrderedByDamageThenById(CardType.MELEE, 10, 30).forEach(battlecards::add);
+
+        assertEquals(2, battlecards.size());
+        assertEquals(2, battlecards.get(0).getId());
+        assertEquals(3, battlecards.get(1).getId());
+    }
+
+    @Test
+    public void testChangeTypeMovesCardBetweenTypes() {
+        RoyaleArena royaleArena = new RoyaleArena();
+        Battlecard battlecard = new Battlecard(1, CardType.MELEE, "test name", 100, 50);
+        royaleArena.add(battlecard);
+        royaleArena.add(new Battlecard(2, CardType.MELEE, "test name", 100, 50));
+        royaleArena.changeCardType(1, CardType.SPELL);
+
+        List<Battlecard> spells = new ArrayList<>();
+        royaleArena.getByCardType(CardType.SPELL).forEach(spells::add);
+        List<Battlecard> melee = new ArrayList<>();
+        royaleArena.getByCardType(CardType.MELEE).forEach(melee::add);
+
+        assertEquals(1, spells.size());
+        assertEquals(1, spells.get(0).getId());
+        assertEquals(1, melee.size());
+        assertEquals(2, melee.get(0).getId());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemoveAfterChangeTypeLeavesNoStaleCard() {
+        RoyaleArena royaleArena = new RoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "test name", 100, 50));
+        royaleArena.changeCardType(1, CardType.SPELL);
+        royaleArena.removeById(1);
+        royaleArena.getByCardType(CardType.MELEE);
+    }
+
+    @Test
+    public void testChangeTypesMovesAllCards() {
+        RoyaleArena royaleArena = new RoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "test name", 100, 50));
+        royaleArena.add(new Battlecard(2, CardType.MELEE, "test name", 200, 50));
+        royaleArena.add(new Battlecard(3, CardType.RANGED, "test name", 300, 50));
+
+        Map<Integer, CardType> types = new HashMap<>();
+        types.put(1, CardType.SPELL);
+        types.put(3, CardType.SPELL);
+        royaleArena.changeCardTypes(types);
+
+        List<Battlecard> spells = new ArrayList<>();
+        royaleArena.getByCardType(CardType.SPELL).forEach(spells::add);
+
+        assertEquals(2, spells.size());
+        assertEquals(3, spells.get(0).getId());
+        assertEquals(1, spells.get(1).getId());
+        assertEquals(CardType.MELEE, royaleArena.getById(2).getType());
+    }
+
+    @Test
+    public void testChangeTypesWithUnknownIdChangesNothing() {
+        RoyaleArena royaleArena = new RoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "test name", 100, 50));
+
+        Map<Integer, CardType> types = new HashMap<>();
+        types.put(1, CardType.SPELL);
+        types.put(2, CardType.SPELL);
+
+        try {
+            royaleArena.changeCardTypes(types);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+
+        assertEquals(CardType.MELEE, royaleArena.getById(1).getType());
+    }
+
+    @Test
+    public void testFindFirstLeastSwagBreaksTiesById() {
+        RoyaleArena royaleArena = new RoyaleArena();
+        royaleArena.add(new Battlecard(3, CardType.MELEE, "test name", 100, 10));
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "test name", 100, 30));
+        royaleArena.add(new Battlecard(2, CardType.SPELL, "test name", 100, 10));
+        royaleArena.add(new Battlecard(4, CardType.SPELL, "test name", 100, 20));
+        royaleArena.removeById(4);
+
+        List<Battlecard> battlecards = new ArrayList<>();
+        royaleArena.findFirstLeastSwag(3).forEach(battlecards::add);
+
+        assertEquals(3, battlecards.size());
+        assertEquals(2, battlecards.get(0).getId());
+        assertEquals(3, battlecards.get(1).getId());
+        assertEquals(1, battlecards.get(2).getId());
+    }
+
+    @Test
+    public void testGetAllByNameAndSwagPromotesNextBestOnRemove() {
+        RoyaleArena royaleArena = new RoyaleArena();
+        royaleArena.add(new Battlecard(1, CardType.MELEE, "first", 100, 10));
+        royaleArena.add(new Battlecard(2, CardType.MELEE, "second", 100, 40));
+        royaleArena.add(new Battlecard(3, CardType.MELEE, "first", 100, 30));
+        royaleArena.add(new Battlecard(4, CardType.MELEE, "first", 100, 20));
+        royaleArena.add(new Battlecard(5, CardType.MELEE, "first", 100, 20));
+        royaleArena.removeById(3);
+        royaleArena.removeById(1);
+
+        List<Battlecard> battlecards = new ArrayList<>();
+        royaleArena.getAllByNameAndSwag().forEach(battlecards::add);
+
+        assertEquals(2, battlecards.size());
+        assertEquals(2, battlecards.get(0).getId());
+        assertEquals(4, battlecards.get(1).getId());
+    }
 }
\ No newline at end of file
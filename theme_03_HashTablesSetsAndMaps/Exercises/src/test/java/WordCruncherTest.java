@@ -0,0 +1,86 @@
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class WordCruncherTest {
+
+    private static final List<String> WORDS = Arrays.asList("text", "me", "so", "m", "ran", "do", "som", "e", "ex", "t", "t");
+    private static final String TARGET = "somerandomtext";
+
+    @Test
+    public void testSolveListsSegmentationsInOrder() {
+        List<String> results = new ArrayList<>();
+        WordCruncher.solve(WORDS, TARGET, words -> results.add(String.join(" ", words)));
+
+        assertEquals(Arrays.asList(
+                "so me ran do m t ex t",
+                "so me ran do m text",
+                "som e ran do m t ex t",
+                "som e ran do m text"), results);
+    }
+
+    @Test
+    public void testSolveRespectsWordCounts() {
+        List<String> results = new ArrayList<>();
+        WordCruncher.solve(Arrays.asList("ab", "ab", "c"), "ababab", words -> results.add(String.join(" ", words)));
+
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void testParallelSolveFindsSameSegmentations() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            words.add("a");
+            words.add("aa");
+            words.add("aaa");
+        }
+        String target = "aaaaaaaaaaaa";
+
+        List<String> expected = new ArrayList<>();
+        WordCruncher.solve(words, target, result -> expected.add(String.join(" ", result)));
+
+        Queue<String> actual = new ConcurrentLinkedQueue<>();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            WordCruncher.solve(words, target, result -> actual.add(String.join(" ", result)), pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        List<String> sorted = new ArrayList<>(actual);
+        Collections.sort(sorted);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, sorted);
+    }
+
+    @Test
+    public void testIndependentProblemsRunConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    int[] count = new int[1];
+                    WordCruncher.solve(WORDS, TARGET, words -> count[0]++);
+                    return count[0];
+                }));
+            }
+
+            int first = futures.get(0).get();
+            for (Future<Integer> future : futures) {
+                assertEquals(first, (int) future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+// A KeyValue that also carries the links the cache and its eviction policies thread through it.
+public class CacheEntry<K, V> extends KeyValue<K, V> {
+
+    final int hash;
+    CacheEntry<K, V> nextInSlot;
+
+    CacheEntry<K, V> before;
+    CacheEntry<K, V> after;
+
+    // Neighbours in the cache's write-order queue, oldest write first.
+    CacheEntry<K, V> previousWrite;
+    CacheEntry<K, V> nextWrite;
+
+    long writeTime;
+    int frequency;
+    int segment;
+
+    CacheEntry(int hash, K key, V value) {
+        super(key, value);
+        this.hash = hash;
+    }
+}
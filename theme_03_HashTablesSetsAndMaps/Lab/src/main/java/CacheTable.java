@@ -0,0 +1,356 @@
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongSupplier;
+
+// Bounded memo cache with the HashTable slot layout (chained slots grown at LOAD_FACTOR). Once the
+// cache holds more than maximumSize entries the EvictionPolicy picks which one to drop. Every entry
+// lives for the same expireAfterWrite, so a queue in write order is also in expiry order: expired
+// entries are purged from its head before the policy is asked for a victim, and dropped lazily when
+// they are looked up. find and the iterator hand out views, never the entries themselves.
+public class CacheTable<K, V> implements Iterable<KeyValue<K, V>> {
+    private final static double LOAD_FACTOR = 0.80d;
+
+    private final static int INITIAL_CAPACITY = 16;
+
+    private final static long NO_EXPIRY = -1L;
+
+    private CacheEntry<K, V>[] slots;
+
+    private CacheEntry<K, V> oldestWrite;
+    private CacheEntry<K, V> newestWrite;
+
+    private int count;
+    private int capacity;
+
+    private final int maximumSize;
+    private final EvictionPolicy<K, V> policy;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier clock;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public CacheTable(int maximumSize, EvictionPolicy<K, V> policy) {
+        this(maximumSize, policy, null, System::nanoTime);
+    }
+
+    public CacheTable(int maximumSize, EvictionPolicy<K, V> policy, Duration expireAfterWrite) {
+        this(maximumSize, policy, expireAfterWrite, System::nanoTime);
+    }
+
+    public CacheTable(int maximumSize, EvictionPolicy<K, V> policy, Duration expireAfterWrite, LongSupplier clock) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+
+        this.maximumSize = maximumSize;
+        this.policy = policy;
+        this.expireAfterWriteNanos = expireAfterWrite == null ? NO_EXPIRY : expireAfterWrite.toNanos();
+        this.clock = clock;
+
+        this.capacity = INITIAL_CAPACITY;
+        this.slots = newSlots(this.capacity);
+    }
+
+    public void add(K key, V value) {
+        if (this.findLive(key) != null) {
+            throw new IllegalArgumentException("Key already exist " + key);
+        }
+
+        this.insert(key, value);
+    }
+
+    public boolean addOrReplace(K key, V value) {
+        CacheEntry<K, V> entry = this.findLive(key);
+
+        if (entry != null) {
+            this.rewrite(entry, value);
+            return false;
+        }
+
+        this.insert(key, value);
+        return true;
+    }
+
+    public V get(K key) {
+        KeyValue<K, V> pair = this.find(key);
+        if (pair == null) {
+            throw new IllegalArgumentException();
+        }
+        return pair.getValue();
+    }
+
+    public KeyValue<K, V> find(K key) {
+        CacheEntry<K, V> entry = this.findLive(key);
+
+        if (entry == null) {
+            this.missCount++;
+            return null;
+        }
+
+        this.hitCount++;
+        this.policy.recordAccess(entry);
+        return new EntryView(entry);
+    }
+
+    // Does not count as an access for the eviction policy or the hit/miss counters.
+    public boolean containsKey(K key) {
+        return this.findLive(key) != null;
+    }
+
+    public boolean remove(K key) {
+        CacheEntry<K, V> entry = this.findEntry(key);
+
+        if (entry == null) {
+            return false;
+        }
+
+        this.unlink(entry);
+        return !this.isExpired(entry);
+    }
+
+    public int size() {
+        return this.count;
+    }
+
+    public int maximumSize() {
+        return this.maximumSize;
+    }
+
+    public long hitCount() {
+        return this.hitCount;
+    }
+
+    public long missCount() {
+        return this.missCount;
+    }
+
+    public long evictionCount() {
+        return this.evictionCount;
+    }
+
+    public double hitRate() {
+        long requests = this.hitCount + this.missCount;
+        return requests == 0 ? 1.0d : (double) this.hitCount / requests;
+    }
+
+    private void insert(K key, V value) {
+        this.purgeExpired();
+        this.growIfNeeded();
+
+        int hash = spread(key);
+        int index = this.findSlotNumber(hash);
+
+        CacheEntry<K, V> entry = new CacheEntry<>(hash, key, value);
+        entry.writeTime = this.now();
+        entry.nextInSlot = this.slots[index];
+        this.slots[index] = entry;
+        this.count++;
+        this.appendWrite(entry);
+
+        this.policy.recordInsert(entry);
+
+        while (this.count > this.maximumSize) {
+            this.unlink(this.policy.selectVictim());
+            this.evictionCount++;
+        }
+    }
+
+    private CacheEntry<K, V> findLive(K key) {
+        CacheEntry<K, V> entry = this.findEntry(key);
+
+        if (entry != null && this.isExpired(entry)) {
+            this.unlink(entry);
+            return null;
+        }
+
+        return entry;
+    }
+
+    private void rewrite(CacheEntry<K, V> entry, V value) {
+        entry.setValue(value);
+        entry.writeTime = this.now();
+        this.removeWrite(entry);
+        this.appendWrite(entry);
+        this.policy.recordAccess(entry);
+    }
+
+    private void purgeExpired() {
+        while (this.oldestWrite != null && this.isExpired(this.oldestWrite)) {
+            this.unlink(this.oldestWrite);
+        }
+    }
+
+    private void appendWrite(CacheEntry<K, V> entry) {
+        entry.previousWrite = this.newestWrite;
+        if (this.newestWrite == null) {
+            this.oldestWrite = entry;
+        } else {
+            this.newestWrite.nextWrite = entry;
+        }
+        this.newestWrite = entry;
+    }
+
+    private void removeWrite(CacheEntry<K, V> entry) {
+        if (entry.previousWrite == null) {
+            this.oldestWrite = entry.nextWrite;
+        } else {
+            entry.previousWrite.nextWrite = entry.nextWrite;
+        }
+        if (entry.nextWrite == null) {
+            this.newestWrite = entry.previousWrite;
+        } else {
+            entry.nextWrite.previousWrite = entry.previousWrite;
+        }
+        entry.previousWrite = null;
+        entry.nextWrite = null;
+    }
+
+    private CacheEntry<K, V> findEntry(K key) {
+        int hash = spread(key);
+
+        for (CacheEntry<K, V> entry = this.slots[this.findSlotNumber(hash)]; entry != null; entry = entry.nextInSlot) {
+            if (entry.hash == hash && entry.getKey().equals(key)) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    private void unlink(CacheEntry<K, V> entry) {
+        int index = this.findSlotNumber(entry.hash);
+
+        CacheEntry<K, V> previous = null;
+        for (CacheEntry<K, V> current = this.slots[index]; current != null; current = current.nextInSlot) {
+            if (current == entry) {
+                if (previous == null) {
+                    this.slots[index] = current.nextInSlot;
+                } else {
+                    previous.nextInSlot = current.nextInSlot;
+                }
+                break;
+            }
+            previous = current;
+        }
+
+        entry.nextInSlot = null;
+        this.removeWrite(entry);
+        this.count--;
+        this.policy.recordRemoval(entry);
+    }
+
+    private boolean isExpired(CacheEntry<K, V> entry) {
+        return this.expireAfterWriteNanos != NO_EXPIRY && this.now() - entry.writeTime >= this.expireAfterWriteNanos;
+    }
+
+    private long now() {
+        return this.expireAfterWriteNanos == NO_EXPIRY ? 0L : this.clock.getAsLong();
+    }
+
+    private void growIfNeeded() {
+        if (((double) this.count + 1) / this.capacity <= LOAD_FACTOR) {
+            return;
+        }
+
+        CacheEntry<K, V>[] previous = this.slots;
+
+        this.capacity *= 2;
+        this.slots = newSlots(this.capacity);
+
+        for (CacheEntry<K, V> head : previous) {
+            CacheEntry<K, V> entry = head;
+            while (entry != null) {
+                CacheEntry<K, V> next = entry.nextInSlot;
+                int index = this.findSlotNumber(entry.hash);
+                entry.nextInSlot = this.slots[index];
+                this.slots[index] = entry;
+                entry = next;
+            }
+        }
+    }
+
+    private int findSlotNumber(int hash) {
+        return (hash & Integer.MAX_VALUE) % this.capacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> CacheEntry<K, V>[] newSlots(int capacity) {
+        return (CacheEntry<K, V>[]) new CacheEntry<?, ?>[capacity];
+    }
+
+    private static int spread(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public Iterator<KeyValue<K, V>> iterator() {
+        return new Iterator<KeyValue<K, V>>() {
+            private int slotIndex = 0;
+            private CacheEntry<K, V> next = this.advance(null);
+
+            @Override
+            public boolean hasNext() {
+                return this.next != null;
+            }
+
+            @Override
+            public KeyValue<K, V> next() {
+                if (this.next == null) {
+                    throw new NoSuchElementException("Empty cache");
+                }
+                CacheEntry<K, V> current = this.next;
+                this.next = this.advance(current);
+                return new EntryView(current);
+            }
+
+            // Skips entries that have expired but not been purged yet.
+            private CacheEntry<K, V> advance(CacheEntry<K, V> from) {
+                CacheEntry<K, V> entry = from == null ? null : from.nextInSlot;
+                while (true) {
+                    while (entry == null) {
+                        if (this.slotIndex == capacity) {
+                            return null;
+                        }
+                        entry = slots[this.slotIndex++];
+                    }
+                    if (!isExpired(entry)) {
+                        return entry;
+                    }
+                    entry = entry.nextInSlot;
+                }
+            }
+        };
+    }
+
+    // Reads through to the entry; setValue on an entry still in the cache counts as a write and an
+    // access, the same as addOrReplace.
+    private class EntryView extends KeyValue<K, V> {
+        private final CacheEntry<K, V> entry;
+
+        EntryView(CacheEntry<K, V> entry) {
+            super(entry.getKey(), entry.getValue());
+            this.entry = entry;
+        }
+
+        @Override
+        public V getValue() {
+            return this.entry.getValue();
+        }
+
+        @Override
+        public void setValue(V value) {
+            if (this.entry == null) {
+                // Called from the KeyValue constructor.
+                super.setValue(value);
+            } else if (findEntry(this.entry.getKey()) == this.entry && !isExpired(this.entry)) {
+                rewrite(this.entry, value);
+            } else {
+                this.entry.setValue(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,417 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentHashTable<K, V> implements Iterable<KeyValue<K, V>> {
+    private final static double LOAD_FACTOR = 0.75d;
+
+    private final static int INITIAL_CAPACITY = 16;
+
+    private final static int DEFAULT_STRIPES = 16;
+
+    private final static int TRANSFER_STRIDE = 16;
+
+    private final static int MOVED = -1;
+
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+    private final AtomicReference<Resize<K, V>> resize;
+
+    private final ReentrantLock[] locks;
+    private final LongAdder count;
+
+    public ConcurrentHashTable() {
+        this(INITIAL_CAPACITY, DEFAULT_STRIPES);
+    }
+
+    public ConcurrentHashTable(int capacity) {
+        this(capacity, DEFAULT_STRIPES);
+    }
+
+    // Bin i of a table is guarded by stripe i % stripes. Capacity and stripes are powers of two with
+    // stripes <= capacity, so when bin i splits into bins i and i + n on resize both stay on the same stripe.
+    public ConcurrentHashTable(int capacity, int stripes) {
+        int stripeCount = powerOfTwoAtLeast(stripes);
+        int tableSize = Math.max(powerOfTwoAtLeast(capacity), stripeCount);
+
+        this.table = new AtomicReferenceArray<>(tableSize);
+        this.resize = new AtomicReference<>();
+
+        this.locks = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
+
+        this.count = new LongAdder();
+    }
+
+    public void add(K key, V value) {
+        if (this.put(key, value, false) != null) {
+            throw new IllegalArgumentException("Key already exist " + key);
+        }
+    }
+
+    public boolean addOrReplace(K key, V value) {
+        return this.put(key, value, true) == null;
+    }
+
+    public V get(K key) {
+        Node<K, V> node = this.findNode(key);
+        if (node == null) {
+            throw new IllegalArgumentException();
+        }
+        return node.value;
+    }
+
+    public KeyValue<K, V> find(K key) {
+        Node<K, V> node = this.findNode(key);
+
+        if (node == null) {
+            return null;
+        }
+
+        return new KeyValue<>(node.key, node.value);
+    }
+
+    public boolean containsKey(K key) {
+        return this.findNode(key) != null;
+    }
+
+    public boolean remove(K key) {
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = this.table;
+
+        while (true) {
+            int index = hash & (tab.length() - 1);
+            ReentrantLock lock = this.lockFor(index);
+
+            lock.lock();
+            try {
+                Node<K, V> head = tab.get(index);
+
+                if (head instanceof ForwardingNode) {
+                    tab = ((ForwardingNode<K, V>) head).nextTable;
+                    continue;
+                }
+
+                Node<K, V> target = head;
+                while (target != null && !(target.hash == hash && target.key.equals(key))) {
+                    target = target.next;
+                }
+
+                if (target == null) {
+                    return false;
+                }
+
+                // Nodes are immutable apart from their value, so the prefix before the removed node is copied.
+                Node<K, V> rebuilt = target.next;
+                for (Node<K, V> node = head; node != target; node = node.next) {
+                    rebuilt = new Node<>(node.hash, node.key, node.value, rebuilt);
+                }
+
+                tab.set(index, rebuilt);
+                this.count.decrement();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public int size() {
+        return (int) this.count.sum();
+    }
+
+    public int capacity() {
+        return this.table.length();
+    }
+
+    public void clear() {
+        for (KeyValue<K, V> pair : this) {
+            this.remove(pair.getKey());
+        }
+    }
+
+    public Iterable<K> keys() {
+        return () -> new Iterator<K>() {
+            private final Iterator<KeyValue<K, V>> pairs = iterator();
+
+            @Override
+            public boolean hasNext() {
+                return this.pairs.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return this.pairs.next().getKey();
+            }
+        };
+    }
+
+    public Iterable<V> values() {
+        return () -> new Iterator<V>() {
+            private final Iterator<KeyValue<K, V>> pairs = iterator();
+
+            @Override
+            public boolean hasNext() {
+                return this.pairs.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return this.pairs.next().getValue();
+            }
+        };
+    }
+
+    // Lock-free and bounded by the number of concurrent resizes: a forwarded bin sends the reader to the next table.
+    private Node<K, V> findNode(K key) {
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = this.table;
+
+        while (true) {
+            Node<K, V> node = tab.get(hash & (tab.length() - 1));
+
+            if (node instanceof ForwardingNode) {
+                tab = ((ForwardingNode<K, V>) node).nextTable;
+                continue;
+            }
+
+            for (; node != null; node = node.next) {
+                if (node.hash == hash && node.key.equals(key)) {
+                    return node;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    // Returns the node that already held the key, or null if a new node was inserted.
+    private Node<K, V> put(K key, V value, boolean replace) {
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = this.table;
+
+        while (true) {
+            int index = hash & (tab.length() - 1);
+            ReentrantLock lock = this.lockFor(index);
+
+            lock.lock();
+            try {
+                Node<K, V> head = tab.get(index);
+
+                if (head instanceof ForwardingNode) {
+                    tab = ((ForwardingNode<K, V>) head).nextTable;
+                    continue;
+                }
+
+                for (Node<K, V> node = head; node != null; node = node.next) {
+                    if (node.hash == hash && node.key.equals(key)) {
+                        if (replace) {
+                            node.value = value;
+                        }
+                        return node;
+                    }
+                }
+
+                tab.set(index, new Node<>(hash, key, value, head));
+                this.count.increment();
+            } finally {
+                lock.unlock();
+            }
+
+            this.growIfNeeded();
+            return null;
+        }
+    }
+
+    private void growIfNeeded() {
+        Resize<K, V> current = this.resize.get();
+
+        if (current == null) {
+            AtomicReferenceArray<Node<K, V>> tab = this.table;
+            if ((double) this.count.sum() / tab.length() <= LOAD_FACTOR) {
+                return;
+            }
+
+            Resize<K, V> started = new Resize<>(tab);
+            if (!this.resize.compareAndSet(null, started)) {
+                current = this.resize.get();
+            } else if (this.table != tab) {
+                // Another resize completed between reading the table and installing ours.
+                this.resize.compareAndSet(started, null);
+                return;
+            } else {
+                current = started;
+            }
+        }
+
+        if (current != null) {
+            this.transfer(current);
+        }
+    }
+
+    // Any writer that notices a resize claims TRANSFER_STRIDE bins at a time until none are left.
+    // A resize can be installed for a table that another resize has already replaced (growIfNeeded only
+    // notices after its compareAndSet), and every bin of that table is already forwarded. Helpers must not
+    // copy those forwarding nodes, so they stop as soon as the resize no longer matches the current table.
+    private void transfer(Resize<K, V> resize) {
+        int oldLength = resize.oldTable.length();
+        ForwardingNode<K, V> forward = new ForwardingNode<>(resize.nextTable);
+
+        while (true) {
+            if (this.table != resize.oldTable) {
+                return;
+            }
+
+            int end = resize.transferIndex.get();
+            if (end <= 0) {
+                return;
+            }
+
+            int start = Math.max(0, end - TRANSFER_STRIDE);
+            if (!resize.transferIndex.compareAndSet(end, start)) {
+                continue;
+            }
+
+            for (int index = start; index < end; index++) {
+                this.transferBin(resize, index, oldLength, forward);
+            }
+
+            if (resize.remaining.addAndGet(start - end) == 0) {
+                this.table = resize.nextTable;
+                this.resize.compareAndSet(resize, null);
+                return;
+            }
+        }
+    }
+
+    private void transferBin(Resize<K, V> resize, int index, int oldLength, ForwardingNode<K, V> forward) {
+        ReentrantLock lock = this.lockFor(index);
+
+        lock.lock();
+        try {
+            Node<K, V> low = null;
+            Node<K, V> high = null;
+
+            for (Node<K, V> node = resize.oldTable.get(index); node != null; node = node.next) {
+                if ((node.hash & oldLength) == 0) {
+                    low = new Node<>(node.hash, node.key, node.value, low);
+                } else {
+                    high = new Node<>(node.hash, node.key, node.value, high);
+                }
+            }
+
+            resize.nextTable.set(index, low);
+            resize.nextTable.set(index + oldLength, high);
+            resize.oldTable.set(index, forward);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(int index) {
+        return this.locks[index & (this.locks.length - 1)];
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) & Integer.MAX_VALUE;
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        int result = 1;
+        while (result < value) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    // Weakly consistent: reflects the table at some point during the iteration and never throws
+    // ConcurrentModificationException. Only one bin at a time is buffered.
+    @Override
+    public Iterator<KeyValue<K, V>> iterator() {
+        return new BinIterator();
+    }
+
+    private class BinIterator implements Iterator<KeyValue<K, V>> {
+        private final AtomicReferenceArray<Node<K, V>> base;
+        private int binIndex;
+        private final Deque<KeyValue<K, V>> current;
+
+        BinIterator() {
+            this.base = table;
+            this.binIndex = 0;
+            this.current = new ArrayDeque<>();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.current.isEmpty() && this.binIndex < this.base.length()) {
+                this.collect(this.base, this.binIndex++);
+            }
+            return !this.current.isEmpty();
+        }
+
+        @Override
+        public KeyValue<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Empty hash table");
+            }
+            return this.current.poll();
+        }
+
+        private void collect(AtomicReferenceArray<Node<K, V>> tab, int index) {
+            Node<K, V> node = tab.get(index);
+
+            if (node instanceof ForwardingNode) {
+                AtomicReferenceArray<Node<K, V>> next = ((ForwardingNode<K, V>) node).nextTable;
+                this.collect(next, index);
+                this.collect(next, index + tab.length());
+                return;
+            }
+
+            for (; node != null; node = node.next) {
+                this.current.add(new KeyValue<>(node.key, node.value));
+            }
+        }
+    }
+
+    private static class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        final Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private static final class ForwardingNode<K, V> extends Node<K, V> {
+        final AtomicReferenceArray<Node<K, V>> nextTable;
+
+        ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    private static final class Resize<K, V> {
+        final AtomicReferenceArray<Node<K, V>> oldTable;
+        final AtomicReferenceArray<Node<K, V>> nextTable;
+        final AtomicInteger transferIndex;
+        final AtomicInteger remaining;
+
+        Resize(AtomicReferenceArray<Node<K, V>> oldTable) {
+            this.oldTable = oldTable;
+            this.nextTable = new AtomicReferenceArray<>(oldTable.length() * 2);
+            this.transferIndex = new AtomicInteger(oldTable.length());
+            this.remaining = new AtomicInteger(oldTable.length());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+// Intrusive doubly linked list over CacheEntry.before/after with a sentinel head.
+// The head end holds the most recently added or moved entry, the tail end the oldest.
+class EntryList<K, V> {
+
+    private final CacheEntry<K, V> sentinel;
+    private int size;
+
+    EntryList() {
+        this.sentinel = new CacheEntry<>(0, null, null);
+        this.sentinel.before = this.sentinel;
+        this.sentinel.after = this.sentinel;
+    }
+
+    void addFirst(CacheEntry<K, V> entry) {
+        entry.after = this.sentinel.after;
+        entry.before = this.sentinel;
+        this.sentinel.after.before = entry;
+        this.sentinel.after = entry;
+        this.size++;
+    }
+
+    void remove(CacheEntry<K, V> entry) {
+        entry.before.after = entry.after;
+        entry.after.before = entry.before;
+        entry.before = null;
+        entry.after = null;
+        this.size--;
+    }
+
+    void moveToFirst(CacheEntry<K, V> entry) {
+        this.remove(entry);
+        this.addFirst(entry);
+    }
+
+    CacheEntry<K, V> last() {
+        return this.size == 0 ? null : this.sentinel.before;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+}
@@ -0,0 +1,11 @@
+public interface EvictionPolicy<K, V> {
+
+    void recordInsert(CacheEntry<K, V> entry);
+
+    void recordAccess(CacheEntry<K, V> entry);
+
+    void recordRemoval(CacheEntry<K, V> entry);
+
+    // Called while the cache holds one entry more than its maximum size; the returned entry is evicted.
+    CacheEntry<K, V> selectVictim();
+}
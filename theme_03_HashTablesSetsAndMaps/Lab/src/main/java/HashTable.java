@@ -1,52 +1,207 @@
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class HashTable<K, V> implements Iterable<KeyValue<K, V>> {
-    private LinkedList<KeyValue<K, V>>[] slots;
+    private Collection<KeyValue<K, V>>[] slots;
     private final static double LOAD_FACTOR = 0.80d;
 
     private final static int INITIAL_CAPACITY = 16;
 
+    private final static int MIGRATION_STEP = 4;
+
+    private final static int TREEIFY_THRESHOLD = 8;
+
+    private final static int UNTREEIFY_THRESHOLD = 6;
+
+    private final static int MIN_TREEIFY_CAPACITY = 64;
+
     private int count;
     private int capacity;
+    private int modCount;
+
+    private final boolean incrementalRehash;
+    private Collection<KeyValue<K, V>>[] oldSlots;
+    private int oldCapacity;
+    private int migrationIndex;
+
+    private Counters counters;
 
     public HashTable() {
         this(INITIAL_CAPACITY);
     }
 
     public HashTable(int capacity) {
-        this.slots = new LinkedList[capacity];
+        this(capacity, false);
+    }
+
+    // With incrementalRehash the old slots are kept next to the new ones after a grow and
+    // moved over MIGRATION_STEP buckets per mutating operation instead of all at once.
+    public HashTable(int capacity, boolean incrementalRehash) {
+        this.slots = newSlots(capacity);
 
         this.count = 0;
         this.capacity = capacity;
+        this.incrementalRehash = incrementalRehash;
+    }
+
+    public static <K, V> HashTable<K, V> withExpectedSize(int expectedSize) {
+        return new HashTable<>(capacityFor(expectedSize));
     }
 
     public void add(K key, V value) {
+        this.migrateStep();
         this.growIfNeeded();
 
-        int index = findSlotNumber(key);
+        this.insert(key, value, false);
+    }
+
+    // Bulk paths size the slots once up front and then insert without per-entry grow checks.
+    public void addAll(Iterable<KeyValue<K, V>> pairs) {
+        if (!(pairs instanceof Collection) && !(pairs instanceof HashTable)) {
+            for (KeyValue<K, V> pair : pairs) {
+                this.add(pair.getKey(), pair.getValue());
+            }
+            return;
+        }
 
-        LinkedList<KeyValue<K, V>> slot = this.slots[index];
+        int incoming = pairs instanceof Collection ? ((Collection<?>) pairs).size() : ((HashTable<?, ?>) pairs).size();
+        this.ensureCapacity(this.count + incoming);
 
-        if (slot == null) {
-            slot = new LinkedList<>();
+        for (KeyValue<K, V> pair : pairs) {
+            this.insert(pair.getKey(), pair.getValue(), false);
         }
+    }
+
+    public void putAll(HashTable<? extends K, ? extends V> other) {
+        this.ensureCapacity(this.count + other.size());
+
+        for (KeyValue<? extends K, ? extends V> pair : other) {
+            this.insert(pair.getKey(), pair.getValue(), true);
+        }
+    }
+
+    public void ensureCapacity(int expectedSize) {
+        int required = capacityFor(expectedSize);
+        if (required <= this.capacity) {
+            return;
+        }
+
+        int newCapacity = Math.max(required, this.capacity * 2);
 
-        for (KeyValue<K, V> current : slot) {
-            if (current.getKey().equals(key)) {
+        long start = this.counters != null ? System.nanoTime() : 0L;
+
+        this.finishMigration();
+        this.modCount++;
+
+        Collection<KeyValue<K, V>>[] previous = this.slots;
+
+        this.slots = newSlots(newCapacity);
+        this.capacity = newCapacity;
+
+        for (Collection<KeyValue<K, V>> slot : previous) {
+            this.transfer(slot);
+        }
+
+        if (this.counters != null) {
+            this.counters.recordResize(System.nanoTime() - start);
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return Math.max(1, (int) Math.ceil(expectedSize / LOAD_FACTOR));
+    }
+
+    // Returns true if a new pair was added; with replace == false an existing key is an error.
+    private boolean insert(K key, V value, boolean replace) {
+        KeyValue<K, V> current = this.findInOldSlots(key);
+
+        int index = findSlotNumber(key);
+
+        if (current == null) {
+            current = this.findInSlot(this.slots[index], key);
+        }
+
+        if (current != null) {
+            if (!replace) {
                 throw new IllegalArgumentException("Key already exist " + key);
             }
+            current.setValue(value);
+            return false;
         }
 
         KeyValue<K, V> element = new KeyValue<>(key, value);
-        slot.addLast(element);
+        this.addToSlot(index, element);
 
-        this.slots[index] = slot;
         this.count++;
+        this.modCount++;
+
+        return true;
     }
 
 
     private int findSlotNumber(K key) {
-        return Math.abs(key.hashCode() % this.capacity);
+        return slotNumber(key, this.capacity);
+    }
+
+    // Folds the high hash bits into the low ones so keys that differ only in their upper bits still spread.
+    private static int slotNumber(Object key, int capacity) {
+        return (TreeBucket.spread(key) & Integer.MAX_VALUE) % capacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Collection<KeyValue<K, V>>[] newSlots(int capacity) {
+        return (Collection<KeyValue<K, V>>[]) new Collection<?>[capacity];
+    }
+
+    private KeyValue<K, V> findInSlot(Collection<KeyValue<K, V>> slot, K key) {
+        return this.findInSlot(slot, key, null);
+    }
+
+    // Adds the number of keys compared to probes[0] unless probes is null.
+    private KeyValue<K, V> findInSlot(Collection<KeyValue<K, V>> slot, K key, int[] probes) {
+        if (slot == null) {
+            return null;
+        }
+
+        if (slot instanceof TreeBucket) {
+            return ((TreeBucket<K, V>) slot).find(key, probes);
+        }
+
+        int compared = 0;
+        KeyValue<K, V> found = null;
+        for (KeyValue<K, V> pair : slot) {
+            compared++;
+            if (pair.getKey().equals(key)) {
+                found = pair;
+                break;
+            }
+        }
+
+        if (probes != null) {
+            probes[0] += compared;
+        }
+        return found;
+    }
+
+    private void addToSlot(int index, KeyValue<K, V> pair) {
+        Collection<KeyValue<K, V>> slot = this.slots[index];
+
+        if (slot == null) {
+            slot = new LinkedList<>();
+            this.slots[index] = slot;
+        }
+
+        slot.add(pair);
+
+        if (!(slot instanceof TreeBucket)
+                && slot.size() > TREEIFY_THRESHOLD
+                && this.capacity >= MIN_TREEIFY_CAPACITY) {
+            this.slots[index] = new TreeBucket<>(slot);
+        }
     }
 
     private void growIfNeeded() {
@@ -56,54 +211,102 @@ public class HashTable<K, V> implements Iterable<KeyValue<K, V>> {
     }
 
     private void grow() {
-        HashTable<K, V> newTable = new HashTable<>(this.capacity * 2);
+        long start = this.counters != null ? System.nanoTime() : 0L;
+
+        this.finishMigration();
+        this.modCount++;
 
-        for (LinkedList<KeyValue<K, V>> slot : this.slots) {
-            if (slot != null) {
-                slot.forEach(p -> newTable.add(p.getKey(), p.getValue()));
+        Collection<KeyValue<K, V>>[] previous = this.slots;
+        int previousCapacity = this.capacity;
+
+        this.slots = newSlots(this.capacity * 2);
+        this.capacity *= 2;
+
+        if (this.incrementalRehash) {
+            this.oldSlots = previous;
+            this.oldCapacity = previousCapacity;
+            this.migrationIndex = 0;
+        } else {
+            for (Collection<KeyValue<K, V>> slot : previous) {
+                this.transfer(slot);
             }
         }
 
-        this.slots = newTable.slots;
-        this.capacity *= 2;
+        if (this.counters != null) {
+            this.counters.recordResize(System.nanoTime() - start);
+        }
     }
 
-    public int size() {
-        return this.count;
+    private boolean isMigrating() {
+        return this.oldSlots != null;
     }
 
-    public int capacity() {
-        return this.capacity;
-    }
+    private void migrateStep() {
+        if (!this.isMigrating()) {
+            return;
+        }
 
-    public boolean addOrReplace(K key, V value) {
-        this.growIfNeeded();
+        long start = this.counters != null ? System.nanoTime() : 0L;
 
-        int index = findSlotNumber(key);
+        int end = Math.min(this.migrationIndex + MIGRATION_STEP, this.oldCapacity);
+        this.modCount++;
+        for (; this.migrationIndex < end; this.migrationIndex++) {
+            this.transfer(this.oldSlots[this.migrationIndex]);
+            this.oldSlots[this.migrationIndex] = null;
+        }
+
+        if (this.migrationIndex == this.oldCapacity) {
+            this.oldSlots = null;
+        }
+
+        if (this.counters != null) {
+            this.counters.resizeNanos += System.nanoTime() - start;
+        }
+    }
 
-        LinkedList<KeyValue<K, V>> slot = this.slots[index];
+    private void finishMigration() {
+        while (this.isMigrating()) {
+            this.migrateStep();
+        }
+    }
 
+    // Keys are already known to be unique, so pairs are relinked without the duplicate scan of add.
+    private void transfer(Collection<KeyValue<K, V>> slot) {
         if (slot == null) {
-            slot = new LinkedList<>();
+            return;
         }
 
-        boolean updated = false;
-        for (KeyValue<K, V> current : slot) {
-            if (current.getKey().equals(key)) {
-                current.setValue(value);
-                updated = true;
-            }
+        for (KeyValue<K, V> pair : slot) {
+            this.addToSlot(this.findSlotNumber(pair.getKey()), pair);
         }
+    }
 
-        if (!updated) {
-            KeyValue<K, V> element = new KeyValue<>(key, value);
-            slot.addLast(element);
-            this.count++;
+    private Collection<KeyValue<K, V>> oldSlotFor(K key) {
+        if (!this.isMigrating()) {
+            return null;
         }
 
-        this.slots[index] = slot;
+        int index = slotNumber(key, this.oldCapacity);
+        return index < this.migrationIndex ? null : this.oldSlots[index];
+    }
+
+    private KeyValue<K, V> findInOldSlots(K key) {
+        return this.findInSlot(this.oldSlotFor(key), key);
+    }
+
+    public int size() {
+        return this.count;
+    }
+
+    public int capacity() {
+        return this.capacity;
+    }
+
+    public boolean addOrReplace(K key, V value) {
+        this.migrateStep();
+        this.growIfNeeded();
 
-        return !updated;
+        return this.insert(key, value, true);
     }
 
     public V get(K key) {
@@ -115,21 +318,19 @@ public class HashTable<K, V> implements Iterable<KeyValue<K, V>> {
     }
 
     public KeyValue<K, V> find(K key) {
-        int index = this.findSlotNumber(key);
+        if (this.counters != null) {
+            return this.findCounted(key);
+        }
 
-        LinkedList<KeyValue<K, V>> slot = this.slots[index];
+        int index = this.findSlotNumber(key);
 
-        if (slot == null) {
-            return null;
-        }
+        KeyValue<K, V> pair = this.findInSlot(this.slots[index], key);
 
-        for (KeyValue<K, V> pair : slot) {
-            if (pair.getKey().equals(key)) {
-                return pair;
-            }
+        if (pair != null) {
+            return pair;
         }
 
-        return null;
+        return this.findInOldSlots(key);
     }
 
     public boolean containsKey(K key) {
@@ -137,27 +338,27 @@ public class HashTable<K, V> implements Iterable<KeyValue<K, V>> {
     }
 
     public boolean remove(K key) {
+        this.migrateStep();
+
         int index = findSlotNumber(key);
 
-        LinkedList<KeyValue<K, V>> slot = this.slots[index];
+        Collection<KeyValue<K, V>> slot = this.slots[index];
+        KeyValue<K, V> toRemove = this.findInSlot(slot, key);
 
-        if (slot == null) {
-            return false;
-        }
-
-        KeyValue<K, V> toRemove = null;
-        for (KeyValue<K, V> pair : slot) {
-            if (pair.getKey().equals(key)) {
-                toRemove = pair;
-
-                break;
-            }
+        if (toRemove == null) {
+            slot = this.oldSlotFor(key);
+            toRemove = this.findInSlot(slot, key);
         }
 
         boolean result = toRemove != null && slot.remove(toRemove);
 
         if (result) {
             this.count--;
+            this.modCount++;
+
+            if (slot instanceof TreeBucket && slot.size() <= UNTREEIFY_THRESHOLD && this.slots[index] == slot) {
+                this.slots[index] = new LinkedList<>(slot);
+            }
         }
 
         return result;
@@ -166,27 +367,121 @@ public class HashTable<K, V> implements Iterable<KeyValue<K, V>> {
     public void clear() {
         this.capacity = INITIAL_CAPACITY;
         this.count = 0;
-        this.slots = new LinkedList[this.capacity];
+        this.slots = newSlots(this.capacity);
+        this.oldSlots = null;
+        this.modCount++;
     }
 
-    public Iterable<K> keys() {
-        List<K> keys = new ArrayList<>();
+    // Statistics are off by default; while disabled the only cost is a null check in find and grow.
+    public void enableStatistics() {
+        if (this.counters == null) {
+            this.counters = new Counters();
+        }
+    }
 
-        for (KeyValue<K, V> pair : this) {
-            keys.add(pair.getKey());
+    public void disableStatistics() {
+        this.counters = null;
+    }
+
+    public HashTableStatistics statistics() {
+        int[] histogram = new int[HashTableStatistics.HISTOGRAM_BUCKETS];
+
+        for (int i = 0; i < this.slotRange(); i++) {
+            Collection<KeyValue<K, V>> slot = this.slotAt(i);
+            int length = slot == null ? 0 : slot.size();
+            if (i >= this.capacity && length == 0) {
+                continue;
+            }
+            histogram[Math.min(length, histogram.length - 1)]++;
         }
 
-        return keys;
+        Counters current = this.counters != null ? this.counters : new Counters();
+
+        return new HashTableStatistics(this.count, this.capacity, LOAD_FACTOR, histogram,
+                current.hits, current.misses, current.totalProbes, current.maxProbes,
+                current.resizes, current.resizeNanos);
     }
 
-    public Iterable<V> values() {
-        List<V> values = new ArrayList<>();
+    // Registers this table with the platform MBean server as HashTable:name=<name>.
+    // The MBean reads the table without synchronization, so values are a best-effort view.
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName("HashTable", "name", name);
+            HashTableStatisticsMXBean bean = new HashTableStatisticsMXBean() {
+                @Override
+                public HashTableStatistics getStatistics() {
+                    return statistics();
+                }
+
+                @Override
+                public boolean isStatisticsEnabled() {
+                    return counters != null;
+                }
 
-        for (KeyValue<K, V> pair : this) {
-            values.add(pair.getValue());
+                @Override
+                public void setStatisticsEnabled(boolean enabled) {
+                    if (enabled) {
+                        enableStatistics();
+                    } else {
+                        disableStatistics();
+                    }
+                }
+            };
+
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new StandardMBean(bean, HashTableStatisticsMXBean.class, true), objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register HashTable MBean " + name, e);
+        }
+    }
+
+    private KeyValue<K, V> findCounted(K key) {
+        int[] probes = new int[1];
+        KeyValue<K, V> pair = this.findInSlot(this.slots[this.findSlotNumber(key)], key, probes);
+
+        if (pair == null) {
+            pair = this.findInSlot(this.oldSlotFor(key), key, probes);
+        }
+
+        this.counters.recordFind(probes[0], pair != null);
+        return pair;
+    }
+
+    private static class Counters {
+        long hits;
+        long misses;
+        long totalProbes;
+        int maxProbes;
+        long resizes;
+        long resizeNanos;
+
+        void recordFind(int probes, boolean hit) {
+            if (hit) {
+                this.hits++;
+            } else {
+                this.misses++;
+            }
+            this.totalProbes += probes;
+            this.maxProbes = Math.max(this.maxProbes, probes);
+        }
+
+        void recordResize(long nanos) {
+            this.resizes++;
+            this.resizeNanos += nanos;
         }
+    }
+
+    public Collection<K> keys() {
+        return new KeysView();
+    }
 
-        return values;
+    public Collection<V> values() {
+        return new ValuesView();
+    }
+
+    public Collection<KeyValue<K, V>> entries() {
+        return new EntriesView();
     }
 
     @Override
@@ -194,30 +489,235 @@ public class HashTable<K, V> implements Iterable<KeyValue<K, V>> {
         return new HashIterator();
     }
 
-    private class HashIterator implements Iterator<KeyValue<K, V>> {
-        Deque<KeyValue<K, V>> elements;
+    @Override
+    public Spliterator<KeyValue<K, V>> spliterator() {
+        return new SlotSpliterator(0, this.slotRange(), this.count, this.modCount);
+    }
 
-        HashIterator() {
-            this.elements = new ArrayDeque<>();
+    // Slots are addressed as one range: the current slots first, then the not yet migrated old slots.
+    private int slotRange() {
+        return this.isMigrating() ? this.capacity + this.oldCapacity : this.capacity;
+    }
 
-            for (LinkedList<KeyValue<K, V>> slot : slots) {
-                if (slot != null) {
-                    elements.addAll(slot);
+    private Collection<KeyValue<K, V>> slotAt(int index) {
+        return index < this.capacity ? this.slots[index] : this.oldSlots[index - this.capacity];
+    }
+
+    private class KeysView extends AbstractCollection<K> {
+        @Override
+        public Iterator<K> iterator() {
+            HashIterator iterator = new HashIterator();
+            return new Iterator<K>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
                 }
-            }
+
+                @Override
+                public K next() {
+                    return iterator.next().getKey();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object key) {
+            return key != null && containsKey((K) key);
+        }
+    }
+
+    private class ValuesView extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            HashIterator iterator = new HashIterator();
+            return new Iterator<V>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public V next() {
+                    return iterator.next().getValue();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    private class EntriesView extends AbstractCollection<KeyValue<K, V>> {
+        @Override
+        public Iterator<KeyValue<K, V>> iterator() {
+            return new HashIterator();
+        }
+
+        @Override
+        public Spliterator<KeyValue<K, V>> spliterator() {
+            return HashTable.this.spliterator();
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    private class HashIterator implements Iterator<KeyValue<K, V>> {
+        private int slotIndex;
+        private Iterator<KeyValue<K, V>> current;
+        private Iterator<KeyValue<K, V>> lastReturnedFrom;
+        private int expectedModCount;
+
+        HashIterator() {
+            this.slotIndex = 0;
+            this.current = Collections.emptyIterator();
+            this.expectedModCount = modCount;
         }
 
         @Override
         public boolean hasNext() {
-            return !elements.isEmpty();
+            if (this.current.hasNext()) {
+                return true;
+            }
+
+            int range = slotRange();
+            while (this.slotIndex < range) {
+                Collection<KeyValue<K, V>> slot = slotAt(this.slotIndex++);
+                if (slot != null && !slot.isEmpty()) {
+                    this.current = slot.iterator();
+                    return true;
+                }
+            }
+
+            return false;
         }
 
         @Override
         public KeyValue<K, V> next() {
+            this.checkForComodification();
             if (!hasNext()) {
                 throw new IllegalArgumentException("Empty hash table");
             }
-            return elements.poll();
+            this.lastReturnedFrom = this.current;
+            return this.current.next();
+        }
+
+        @Override
+        public void remove() {
+            if (this.lastReturnedFrom == null) {
+                throw new IllegalStateException();
+            }
+            this.checkForComodification();
+            this.lastReturnedFrom.remove();
+            this.lastReturnedFrom = null;
+            count--;
+            this.expectedModCount = ++modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private class SlotSpliterator implements Spliterator<KeyValue<K, V>> {
+        private int slotIndex;
+        private final int fence;
+        private long estimate;
+        private final int expectedModCount;
+        private Iterator<KeyValue<K, V>> current;
+
+        SlotSpliterator(int origin, int fence, long estimate, int expectedModCount) {
+            this.slotIndex = origin;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+            this.current = Collections.emptyIterator();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super KeyValue<K, V>> action) {
+            while (!this.current.hasNext()) {
+                if (this.slotIndex >= this.fence) {
+                    return false;
+                }
+                Collection<KeyValue<K, V>> slot = slotAt(this.slotIndex++);
+                if (slot != null) {
+                    this.current = slot.iterator();
+                }
+            }
+
+            action.accept(this.current.next());
+            this.checkForComodification();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super KeyValue<K, V>> action) {
+            this.current.forEachRemaining(action);
+            for (; this.slotIndex < this.fence; this.slotIndex++) {
+                Collection<KeyValue<K, V>> slot = slotAt(this.slotIndex);
+                if (slot != null) {
+                    for (KeyValue<K, V> pair : slot) {
+                        action.accept(pair);
+                    }
+                }
+            }
+            this.checkForComodification();
+        }
+
+        @Override
+        public Spliterator<KeyValue<K, V>> trySplit() {
+            if (this.current.hasNext()) {
+                return null;
+            }
+
+            int middle = (this.slotIndex + this.fence) >>> 1;
+            if (middle <= this.slotIndex) {
+                return null;
+            }
+
+            this.estimate >>>= 1;
+            SlotSpliterator prefix = new SlotSpliterator(this.slotIndex, middle, this.estimate, this.expectedModCount);
+            this.slotIndex = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        private void checkForComodification() {
+            if (modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
         }
     }
 }
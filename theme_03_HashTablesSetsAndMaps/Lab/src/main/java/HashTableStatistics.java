@@ -0,0 +1,93 @@
+import java.beans.ConstructorProperties;
+import java.util.Arrays;
+
+// Point-in-time view of a HashTable's shape and of the counters collected since statistics were enabled.
+public class HashTableStatistics {
+    public final static int HISTOGRAM_BUCKETS = 17;
+
+    private final int size;
+    private final int capacity;
+    private final double maxLoadFactor;
+    private final int[] chainLengthHistogram;
+    private final long hits;
+    private final long misses;
+    private final long totalProbes;
+    private final int maxProbes;
+    private final long resizeCount;
+    private final long resizeNanos;
+
+    @ConstructorProperties({"size", "capacity", "maxLoadFactor", "chainLengthHistogram", "hits", "misses",
+            "totalProbes", "maxProbes", "resizeCount", "resizeNanos"})
+    public HashTableStatistics(int size, int capacity, double maxLoadFactor, int[] chainLengthHistogram,
+                               long hits, long misses, long totalProbes, int maxProbes,
+                               long resizeCount, long resizeNanos) {
+        this.size = size;
+        this.capacity = capacity;
+        this.maxLoadFactor = maxLoadFactor;
+        this.chainLengthHistogram = chainLengthHistogram.clone();
+        this.hits = hits;
+        this.misses = misses;
+        this.totalProbes = totalProbes;
+        this.maxProbes = maxProbes;
+        this.resizeCount = resizeCount;
+        this.resizeNanos = resizeNanos;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public double getLoadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    public double getMaxLoadFactor() {
+        return this.maxLoadFactor;
+    }
+
+    // Index i counts the slots holding exactly i pairs; the last index also counts every longer chain.
+    public int[] getChainLengthHistogram() {
+        return this.chainLengthHistogram.clone();
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+
+    public long getTotalProbes() {
+        return this.totalProbes;
+    }
+
+    public double getAverageProbes() {
+        long finds = this.hits + this.misses;
+        return finds == 0 ? 0.0d : (double) this.totalProbes / finds;
+    }
+
+    public int getMaxProbes() {
+        return this.maxProbes;
+    }
+
+    public long getResizeCount() {
+        return this.resizeCount;
+    }
+
+    public long getResizeNanos() {
+        return this.resizeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d capacity=%d load=%.2f/%.2f hits=%d misses=%d avgProbes=%.2f maxProbes=%d resizes=%d resizeMs=%.2f chains=%s",
+                this.size, this.capacity, this.getLoadFactor(), this.maxLoadFactor, this.hits, this.misses,
+                this.getAverageProbes(), this.maxProbes, this.resizeCount, this.resizeNanos / 1e6,
+                Arrays.toString(this.chainLengthHistogram));
+    }
+}
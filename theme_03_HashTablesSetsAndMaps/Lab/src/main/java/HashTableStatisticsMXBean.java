@@ -0,0 +1,8 @@
+public interface HashTableStatisticsMXBean {
+
+    HashTableStatistics getStatistics();
+
+    boolean isStatisticsEnabled();
+
+    void setStatisticsEnabled(boolean enabled);
+}
@@ -0,0 +1,4 @@
+@FunctionalInterface
+public interface IntIntConsumer {
+    void accept(int key, int value);
+}
@@ -0,0 +1,216 @@
+import java.util.Arrays;
+
+public class IntIntHashTable {
+    private final static int EMPTY = 0;
+
+    private final static double LOAD_FACTOR = 0.75d;
+
+    private final static int INITIAL_CAPACITY = 16;
+
+    // Largest power of two an int can hold.
+    private final static int MAXIMUM_CAPACITY = 1 << 30;
+
+    // Key 0 marks an empty slot in the keys array, so its mapping is kept outside the arrays.
+    private int[] keys;
+    private int[] values;
+    private boolean hasEmptyKey;
+    private int emptyKeyValue;
+
+    private int count;
+    private int mask;
+    private int resizeAt;
+
+    public IntIntHashTable() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public IntIntHashTable(int capacity) {
+        this.allocate(tableSizeFor(capacity));
+    }
+
+    public void add(int key, int value) {
+        if (!this.put(key, value)) {
+            throw new IllegalArgumentException("Key already exist " + key);
+        }
+    }
+
+    // Returns true if the key was added, false if an existing value was replaced.
+    public boolean put(int key, int value) {
+        if (key == EMPTY) {
+            boolean added = !this.hasEmptyKey;
+            this.hasEmptyKey = true;
+            this.emptyKeyValue = value;
+            return added;
+        }
+
+        int index = this.findSlotNumber(key);
+        int current;
+        while ((current = this.keys[index]) != EMPTY) {
+            if (current == key) {
+                this.values[index] = value;
+                return false;
+            }
+            index = (index + 1) & this.mask;
+        }
+
+        if (this.count == this.resizeAt && this.keys.length == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Hash table is full");
+        }
+
+        this.keys[index] = key;
+        this.values[index] = value;
+
+        if (++this.count > this.resizeAt) {
+            this.rehash(this.keys.length * 2);
+        }
+
+        return true;
+    }
+
+    public int get(int key) {
+        if (key == EMPTY) {
+            if (!this.hasEmptyKey) {
+                throw new IllegalArgumentException();
+            }
+            return this.emptyKeyValue;
+        }
+
+        int index = this.indexOf(key);
+        if (index < 0) {
+            throw new IllegalArgumentException();
+        }
+        return this.values[index];
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == EMPTY) {
+            return this.hasEmptyKey ? this.emptyKeyValue : defaultValue;
+        }
+
+        int index = this.indexOf(key);
+        return index < 0 ? defaultValue : this.values[index];
+    }
+
+    public boolean containsKey(int key) {
+        return key == EMPTY ? this.hasEmptyKey : this.indexOf(key) >= 0;
+    }
+
+    public boolean remove(int key) {
+        if (key == EMPTY) {
+            boolean removed = this.hasEmptyKey;
+            this.hasEmptyKey = false;
+            this.emptyKeyValue = 0;
+            return removed;
+        }
+
+        int index = this.indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+
+        this.shiftBack(index);
+        this.count--;
+        return true;
+    }
+
+    public int size() {
+        return this.hasEmptyKey ? this.count + 1 : this.count;
+    }
+
+    public int capacity() {
+        return this.keys.length;
+    }
+
+    public void clear() {
+        Arrays.fill(this.keys, EMPTY);
+        Arrays.fill(this.values, 0);
+        this.hasEmptyKey = false;
+        this.emptyKeyValue = 0;
+        this.count = 0;
+    }
+
+    public void forEach(IntIntConsumer action) {
+        if (this.hasEmptyKey) {
+            action.accept(EMPTY, this.emptyKeyValue);
+        }
+
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i] != EMPTY) {
+                action.accept(this.keys[i], this.values[i]);
+            }
+        }
+    }
+
+    private int indexOf(int key) {
+        int index = this.findSlotNumber(key);
+        int current;
+        while ((current = this.keys[index]) != EMPTY) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion: later entries of the probe run move up so no tombstones are needed.
+    private void shiftBack(int index) {
+        int next = (index + 1) & this.mask;
+        int current;
+        while ((current = this.keys[next]) != EMPTY) {
+            int ideal = this.findSlotNumber(current);
+            if (((next - ideal) & this.mask) >= ((next - index) & this.mask)) {
+                this.keys[index] = current;
+                this.values[index] = this.values[next];
+                index = next;
+            }
+            next = (next + 1) & this.mask;
+        }
+
+        this.keys[index] = EMPTY;
+        this.values[index] = 0;
+    }
+
+    private int findSlotNumber(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+
+        this.allocate(newCapacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != EMPTY) {
+                int index = this.findSlotNumber(key);
+                while (this.keys[index] != EMPTY) {
+                    index = (index + 1) & this.mask;
+                }
+                this.keys[index] = key;
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.resizeAt = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    private static int tableSizeFor(int capacity) {
+        if (capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must not exceed " + MAXIMUM_CAPACITY);
+        }
+
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
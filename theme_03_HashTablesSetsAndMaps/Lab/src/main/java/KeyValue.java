@@ -34,10 +34,10 @@ public class KeyValue<Key, Value> {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof KeyValue)) return false;
         KeyValue<?, ?> keyValue = (KeyValue<?, ?>) o;
-        return Objects.equals(key, keyValue.key) &&
-                Objects.equals(value, keyValue.value);
+        return Objects.equals(this.getKey(), keyValue.getKey()) &&
+                Objects.equals(this.getValue(), keyValue.getValue());
     }
 
     @Override
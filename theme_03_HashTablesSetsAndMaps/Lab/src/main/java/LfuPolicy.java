@@ -0,0 +1,53 @@
+import java.util.TreeMap;
+
+// Evicts the least frequently used entry; ties go to the least recently used one. The entry that was
+// just inserted is never its own victim, otherwise a full cache could not admit anything new.
+public class LfuPolicy<K, V> implements EvictionPolicy<K, V> {
+
+    private final TreeMap<Integer, EntryList<K, V>> entriesByFrequency = new TreeMap<>();
+
+    private CacheEntry<K, V> newest;
+
+    @Override
+    public void recordInsert(CacheEntry<K, V> entry) {
+        this.newest = entry;
+        entry.frequency = 1;
+        this.bucket(1).addFirst(entry);
+    }
+
+    @Override
+    public void recordAccess(CacheEntry<K, V> entry) {
+        this.recordRemoval(entry);
+        entry.frequency++;
+        this.bucket(entry.frequency).addFirst(entry);
+    }
+
+    @Override
+    public void recordRemoval(CacheEntry<K, V> entry) {
+        if (entry == this.newest) {
+            this.newest = null;
+        }
+
+        EntryList<K, V> bucket = this.entriesByFrequency.get(entry.frequency);
+        bucket.remove(entry);
+
+        if (bucket.isEmpty()) {
+            this.entriesByFrequency.remove(entry.frequency);
+        }
+    }
+
+    @Override
+    public CacheEntry<K, V> selectVictim() {
+        for (EntryList<K, V> bucket : this.entriesByFrequency.values()) {
+            CacheEntry<K, V> last = bucket.last();
+            if (last != this.newest) {
+                return last;
+            }
+        }
+        return this.newest;
+    }
+
+    private EntryList<K, V> bucket(int frequency) {
+        return this.entriesByFrequency.computeIfAbsent(frequency, f -> new EntryList<>());
+    }
+}
@@ -0,0 +1,4 @@
+@FunctionalInterface
+public interface LongObjConsumer<V> {
+    void accept(long key, V value);
+}
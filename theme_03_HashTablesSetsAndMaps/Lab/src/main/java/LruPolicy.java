@@ -0,0 +1,24 @@
+public class LruPolicy<K, V> implements EvictionPolicy<K, V> {
+
+    private final EntryList<K, V> entries = new EntryList<>();
+
+    @Override
+    public void recordInsert(CacheEntry<K, V> entry) {
+        this.entries.addFirst(entry);
+    }
+
+    @Override
+    public void recordAccess(CacheEntry<K, V> entry) {
+        this.entries.moveToFirst(entry);
+    }
+
+    @Override
+    public void recordRemoval(CacheEntry<K, V> entry) {
+        this.entries.remove(entry);
+    }
+
+    @Override
+    public CacheEntry<K, V> selectVictim() {
+        return this.entries.last();
+    }
+}
@@ -0,0 +1,520 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// File-backed HashTable<String, byte[]>. Everything lives in one memory-mapped file:
+//
+//   header  | MAGIC, VERSION, slotCount, count, tombstones, slotsOffset, dataEnd, garbage
+//   entries | keyLength:int, valueLength:int, key bytes (UTF-8), value bytes   (appended)
+//   slots   | entryOffset:long, hash:int, unused:int                          (16 bytes each)
+//
+// Slots use linear probing. Growing appends a fresh slot array after the entries and points the
+// header at it, so reopening only maps the file and reads the header; clearing tombstones at the same
+// capacity rebuilds the current slot array in place. Removed and replaced entries and retired slot arrays
+// are counted as garbage, and once garbage outweighs live data the file is compacted in place. Compaction
+// is not crash-safe. A single mapping limits the file to Integer.MAX_VALUE bytes.
+public class MappedHashTable implements Iterable<KeyValue<String, byte[]>>, Closeable {
+    private final static int MAGIC = 0x48544D31;
+    private final static int VERSION = 1;
+
+    private final static int HEADER_SIZE = 64;
+    private final static int SLOT_SIZE = 16;
+    private final static int ENTRY_HEADER_SIZE = 8;
+
+    private final static long EMPTY = 0L;
+    private final static long TOMBSTONE = -1L;
+
+    private final static double LOAD_FACTOR = 0.70d;
+
+    private final static int INITIAL_CAPACITY = 1024;
+
+    // Files with less garbage than this are never compacted.
+    private final static long COMPACTION_MINIMUM = 64 * 1024;
+    private final static int COPY_CHUNK = 64 * 1024;
+
+    private final static int MAGIC_POSITION = 0;
+    private final static int VERSION_POSITION = 4;
+    private final static int SLOT_COUNT_POSITION = 8;
+    private final static int COUNT_POSITION = 12;
+    private final static int TOMBSTONES_POSITION = 16;
+    private final static int SLOTS_OFFSET_POSITION = 24;
+    private final static int DATA_END_POSITION = 32;
+    private final static int GARBAGE_POSITION = 40;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    private int capacity;
+    private int count;
+    private int tombstones;
+    private long slotsOffset;
+    private long dataEnd;
+    private long garbage;
+
+    private MappedHashTable(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static MappedHashTable open(Path path) throws IOException {
+        return open(path, INITIAL_CAPACITY);
+    }
+
+    public static MappedHashTable open(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        MappedHashTable table = new MappedHashTable(channel);
+        try {
+            if (channel.size() == 0) {
+                table.initialize(Math.max(capacity, 2));
+            } else {
+                table.load();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return table;
+    }
+
+    private void initialize(int capacity) throws IOException {
+        long size = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        this.buffer.putInt(MAGIC_POSITION, MAGIC);
+        this.buffer.putInt(VERSION_POSITION, VERSION);
+
+        this.capacity = capacity;
+        this.slotsOffset = HEADER_SIZE;
+        this.dataEnd = size;
+        this.count = 0;
+        this.tombstones = 0;
+        this.garbage = 0;
+        this.writeHeader();
+    }
+
+    private void load() throws IOException {
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, this.channel.size());
+
+        if (this.buffer.getInt(MAGIC_POSITION) != MAGIC || this.buffer.getInt(VERSION_POSITION) != VERSION) {
+            throw new IllegalStateException("Not a mapped hash table file");
+        }
+
+        this.capacity = this.buffer.getInt(SLOT_COUNT_POSITION);
+        this.count = this.buffer.getInt(COUNT_POSITION);
+        this.tombstones = this.buffer.getInt(TOMBSTONES_POSITION);
+        this.slotsOffset = this.buffer.getLong(SLOTS_OFFSET_POSITION);
+        this.dataEnd = this.buffer.getLong(DATA_END_POSITION);
+        this.garbage = this.buffer.getLong(GARBAGE_POSITION);
+    }
+
+    private void writeHeader() {
+        this.buffer.putInt(SLOT_COUNT_POSITION, this.capacity);
+        this.buffer.putInt(COUNT_POSITION, this.count);
+        this.buffer.putInt(TOMBSTONES_POSITION, this.tombstones);
+        this.buffer.putLong(SLOTS_OFFSET_POSITION, this.slotsOffset);
+        this.buffer.putLong(DATA_END_POSITION, this.dataEnd);
+        this.buffer.putLong(GARBAGE_POSITION, this.garbage);
+    }
+
+    public void add(String key, byte[] value) {
+        if (!this.put(key, value, false)) {
+            throw new IllegalArgumentException("Key already exist " + key);
+        }
+    }
+
+    public boolean addOrReplace(String key, byte[] value) {
+        return this.put(key, value, true);
+    }
+
+    public byte[] get(String key) {
+        int slot = this.findSlot(key.getBytes(StandardCharsets.UTF_8), spread(key));
+        if (slot < 0) {
+            throw new IllegalArgumentException();
+        }
+        return this.readValue(this.entryOffset(slot));
+    }
+
+    public KeyValue<String, byte[]> find(String key) {
+        int slot = this.findSlot(key.getBytes(StandardCharsets.UTF_8), spread(key));
+
+        if (slot < 0) {
+            return null;
+        }
+
+        return new KeyValue<>(key, this.readValue(this.entryOffset(slot)));
+    }
+
+    public boolean containsKey(String key) {
+        return this.findSlot(key.getBytes(StandardCharsets.UTF_8), spread(key)) >= 0;
+    }
+
+    public boolean remove(String key) {
+        int slot = this.findSlot(key.getBytes(StandardCharsets.UTF_8), spread(key));
+
+        if (slot < 0) {
+            return false;
+        }
+
+        this.garbage += this.entrySize(this.entryOffset(slot));
+        this.buffer.putLong(this.slotPosition(slot), TOMBSTONE);
+        this.count--;
+        this.tombstones++;
+        this.writeHeader();
+
+        return true;
+    }
+
+    public int size() {
+        return this.count;
+    }
+
+    public int capacity() {
+        return this.capacity;
+    }
+
+    public Iterable<String> keys() {
+        return () -> new Iterator<String>() {
+            private final Iterator<KeyValue<String, byte[]>> pairs = iterator();
+
+            @Override
+            public boolean hasNext() {
+                return this.pairs.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return this.pairs.next().getKey();
+            }
+        };
+    }
+
+    public Iterable<byte[]> values() {
+        return () -> new Iterator<byte[]>() {
+            private final Iterator<KeyValue<String, byte[]>> pairs = iterator();
+
+            @Override
+            public boolean hasNext() {
+                return this.pairs.hasNext();
+            }
+
+            @Override
+            public byte[] next() {
+                return this.pairs.next().getValue();
+            }
+        };
+    }
+
+    public void force() {
+        this.buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.force();
+        this.channel.close();
+    }
+
+    // Returns true if the key was added, false if its value was replaced.
+    private boolean put(String key, byte[] value, boolean replace) {
+        if ((double) (this.count + this.tombstones + 1) / this.capacity > LOAD_FACTOR) {
+            this.rehash(this.count + 1 > this.capacity * LOAD_FACTOR / 2 ? this.capacity * 2 : this.capacity);
+        }
+        if (this.garbage >= COMPACTION_MINIMUM && this.garbage > (this.dataEnd - HEADER_SIZE) / 2) {
+            this.compact();
+        }
+
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = spread(key);
+
+        int existing = this.findSlot(keyBytes, hash);
+        if (existing >= 0) {
+            if (!replace) {
+                return false;
+            }
+
+            long entry = this.entryOffset(existing);
+            if (this.buffer.getInt((int) entry + 4) == value.length) {
+                this.buffer.put((int) entry + ENTRY_HEADER_SIZE + keyBytes.length, value);
+            } else {
+                // appendEntry may remap the file, so the slot is written through the buffer it leaves behind.
+                long appended = this.appendEntry(keyBytes, value);
+                this.garbage += this.entrySize(entry);
+                this.buffer.putLong(this.slotPosition(existing), appended);
+                this.writeHeader();
+            }
+            return false;
+        }
+
+        long entry = this.appendEntry(keyBytes, value);
+
+        int slot = this.findFreeSlot(hash);
+        if (this.buffer.getLong(this.slotPosition(slot)) == TOMBSTONE) {
+            this.tombstones--;
+        }
+        this.writeSlot(slot, entry, hash);
+
+        this.count++;
+        this.writeHeader();
+
+        return true;
+    }
+
+    private int findSlot(byte[] keyBytes, int hash) {
+        int index = this.slotNumber(hash);
+
+        for (int probes = 0; probes < this.capacity; probes++) {
+            int position = this.slotPosition(index);
+            long entry = this.buffer.getLong(position);
+
+            if (entry == EMPTY) {
+                return -1;
+            }
+
+            if (entry != TOMBSTONE && this.buffer.getInt(position + 8) == hash && this.keyEquals(entry, keyBytes)) {
+                return index;
+            }
+
+            index = index + 1 == this.capacity ? 0 : index + 1;
+        }
+
+        return -1;
+    }
+
+    private int findFreeSlot(int hash) {
+        int index = this.slotNumber(hash);
+
+        while (true) {
+            long entry = this.buffer.getLong(this.slotPosition(index));
+            if (entry == EMPTY || entry == TOMBSTONE) {
+                return index;
+            }
+            index = index + 1 == this.capacity ? 0 : index + 1;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] live = this.liveSlots();
+
+        if (newCapacity != this.capacity) {
+            this.garbage += (long) this.capacity * SLOT_SIZE;
+
+            long newSlotsOffset = this.dataEnd;
+            this.ensureMapped(newSlotsOffset + (long) newCapacity * SLOT_SIZE);
+
+            this.slotsOffset = newSlotsOffset;
+            this.capacity = newCapacity;
+            this.dataEnd = newSlotsOffset + (long) newCapacity * SLOT_SIZE;
+        }
+
+        this.fillSlots(live);
+        this.writeHeader();
+    }
+
+    // Slides the live entries down to the start of the file in their current order, then writes a fresh
+    // slot array right after them. Entries only ever move to lower offsets, so each one can be copied
+    // forward without overwriting data that has not been moved yet. The file keeps its size, but appends
+    // reuse the freed space from then on.
+    private void compact() {
+        long[] live = this.liveSlots();
+        Arrays.sort(live);
+
+        byte[] chunk = new byte[COPY_CHUNK];
+        long destination = HEADER_SIZE;
+        for (int i = 0; i < live.length; i++) {
+            long entry = live[i] >>> 32;
+            int size = this.entrySize(entry);
+            this.move(entry, destination, size, chunk);
+
+            live[i] = destination << 32 | (live[i] & 0xFFFFFFFFL);
+            destination += size;
+        }
+
+        this.slotsOffset = destination;
+        this.dataEnd = destination + (long) this.capacity * SLOT_SIZE;
+        this.garbage = 0;
+
+        this.fillSlots(live);
+        this.writeHeader();
+    }
+
+    // Every live slot packed as entryOffset << 32 | hash. Offsets stay below 2^31, so sorting the packed
+    // values sorts by offset.
+    private long[] liveSlots() {
+        long[] live = new long[this.count];
+        int size = 0;
+
+        for (int i = 0; i < this.capacity; i++) {
+            int position = this.slotPosition(i);
+            long entry = this.buffer.getLong(position);
+            if (entry != EMPTY && entry != TOMBSTONE) {
+                live[size++] = entry << 32 | (this.buffer.getInt(position + 8) & 0xFFFFFFFFL);
+            }
+        }
+
+        return live;
+    }
+
+    private void fillSlots(long[] live) {
+        for (int i = 0; i < this.capacity; i++) {
+            this.buffer.putLong(this.slotPosition(i), EMPTY);
+        }
+
+        for (long slot : live) {
+            int hash = (int) slot;
+            this.writeSlot(this.findFreeSlot(hash), slot >>> 32, hash);
+        }
+
+        this.tombstones = 0;
+    }
+
+    private void move(long from, long to, int length, byte[] chunk) {
+        if (from == to) {
+            return;
+        }
+
+        for (int done = 0; done < length; done += chunk.length) {
+            int size = Math.min(chunk.length, length - done);
+            this.buffer.get((int) from + done, chunk, 0, size);
+            this.buffer.put((int) to + done, chunk, 0, size);
+        }
+    }
+
+    private int entrySize(long entry) {
+        int position = (int) entry;
+        return ENTRY_HEADER_SIZE + this.buffer.getInt(position) + this.buffer.getInt(position + 4);
+    }
+
+    private long appendEntry(byte[] keyBytes, byte[] value) {
+        long entry = this.dataEnd;
+        long end = entry + ENTRY_HEADER_SIZE + keyBytes.length + value.length;
+
+        this.ensureMapped(end);
+
+        int position = (int) entry;
+        this.buffer.putInt(position, keyBytes.length);
+        this.buffer.putInt(position + 4, value.length);
+        this.buffer.put(position + ENTRY_HEADER_SIZE, keyBytes);
+        this.buffer.put(position + ENTRY_HEADER_SIZE + keyBytes.length, value);
+
+        this.dataEnd = end;
+        return entry;
+    }
+
+    private void ensureMapped(long required) {
+        if (required <= this.buffer.capacity()) {
+            return;
+        }
+
+        long size = Math.max(required, (long) this.buffer.capacity() * 2);
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Mapped hash table file cannot exceed " + Integer.MAX_VALUE + " bytes");
+        }
+        size = Math.min(size, Integer.MAX_VALUE);
+
+        try {
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean keyEquals(long entry, byte[] keyBytes) {
+        int position = (int) entry;
+        if (this.buffer.getInt(position) != keyBytes.length) {
+            return false;
+        }
+
+        int start = position + ENTRY_HEADER_SIZE;
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (this.buffer.get(start + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readKey(long entry) {
+        int position = (int) entry;
+        byte[] keyBytes = new byte[this.buffer.getInt(position)];
+        this.buffer.get(position + ENTRY_HEADER_SIZE, keyBytes);
+        return new String(keyBytes, StandardCharsets.UTF_8);
+    }
+
+    private byte[] readValue(long entry) {
+        int position = (int) entry;
+        int keyLength = this.buffer.getInt(position);
+        byte[] value = new byte[this.buffer.getInt(position + 4)];
+        this.buffer.get(position + ENTRY_HEADER_SIZE + keyLength, value);
+        return value;
+    }
+
+    private void writeSlot(int slot, long entry, int hash) {
+        int position = this.slotPosition(slot);
+        this.buffer.putLong(position, entry);
+        this.buffer.putInt(position + 8, hash);
+    }
+
+    private long entryOffset(int slot) {
+        return this.buffer.getLong(this.slotPosition(slot));
+    }
+
+    private int slotPosition(int slot) {
+        return (int) (this.slotsOffset + (long) slot * SLOT_SIZE);
+    }
+
+    private int slotNumber(int hash) {
+        return (hash & Integer.MAX_VALUE) % this.capacity;
+    }
+
+    private static int spread(String key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public Iterator<KeyValue<String, byte[]>> iterator() {
+        return new SlotIterator();
+    }
+
+    private class SlotIterator implements Iterator<KeyValue<String, byte[]>> {
+        private int slot;
+
+        SlotIterator() {
+            this.slot = this.advance(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.slot < capacity;
+        }
+
+        @Override
+        public KeyValue<String, byte[]> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Empty hash table");
+            }
+
+            long entry = entryOffset(this.slot);
+            this.slot = this.advance(this.slot + 1);
+            return new KeyValue<>(readKey(entry), readValue(entry));
+        }
+
+        private int advance(int from) {
+            while (from < capacity) {
+                long entry = entryOffset(from);
+                if (entry != EMPTY && entry != TOMBSTONE) {
+                    return from;
+                }
+                from++;
+            }
+            return from;
+        }
+    }
+}
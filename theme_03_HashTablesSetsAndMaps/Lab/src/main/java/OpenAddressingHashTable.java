@@ -0,0 +1,337 @@
+import java.util.*;
+
+public class OpenAddressingHashTable<K, V> implements Iterable<KeyValue<K, V>> {
+    private static final Object TOMBSTONE = new Object();
+
+    private final static double LOAD_FACTOR = 0.75d;
+
+    private final static int INITIAL_CAPACITY = 16;
+
+    private Object[] keys;
+    private Object[] values;
+
+    private int count;
+    private int tombstones;
+    private int capacity;
+
+    public OpenAddressingHashTable() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public OpenAddressingHashTable(int capacity) {
+        if (capacity < 1) {
+            capacity = 1;
+        }
+
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+
+        this.count = 0;
+        this.tombstones = 0;
+        this.capacity = capacity;
+    }
+
+    public void add(K key, V value) {
+        this.growIfNeeded();
+
+        int index = this.findInsertIndex(key);
+
+        if (index < 0) {
+            throw new IllegalArgumentException("Key already exist " + key);
+        }
+
+        this.insertAt(index, key, value);
+    }
+
+    public boolean addOrReplace(K key, V value) {
+        this.growIfNeeded();
+
+        int index = this.findInsertIndex(key);
+
+        if (index < 0) {
+            this.values[-index - 1] = value;
+            return false;
+        }
+
+        this.insertAt(index, key, value);
+        return true;
+    }
+
+    public V get(K key) {
+        int index = this.findIndex(key);
+        if (index < 0) {
+            throw new IllegalArgumentException();
+        }
+        return this.valueAt(index);
+    }
+
+    public KeyValue<K, V> find(K key) {
+        int index = this.findIndex(key);
+
+        if (index < 0) {
+            return null;
+        }
+
+        return new SlotEntry(index);
+    }
+
+    public boolean containsKey(K key) {
+        return this.findIndex(key) >= 0;
+    }
+
+    public boolean remove(K key) {
+        int index = this.findIndex(key);
+
+        if (index < 0) {
+            return false;
+        }
+
+        this.keys[index] = TOMBSTONE;
+        this.values[index] = null;
+        this.count--;
+        this.tombstones++;
+
+        return true;
+    }
+
+    public int size() {
+        return this.count;
+    }
+
+    public int capacity() {
+        return this.capacity;
+    }
+
+    // Number of slots find(key) inspects for a present key, counting its home slot.
+    int probeLength(K key) {
+        int index = this.findIndex(key);
+        if (index < 0) {
+            throw new IllegalArgumentException();
+        }
+        return Math.floorMod(index - this.findSlotNumber(key), this.capacity) + 1;
+    }
+
+    public void clear() {
+        this.capacity = INITIAL_CAPACITY;
+        this.count = 0;
+        this.tombstones = 0;
+        this.keys = new Object[this.capacity];
+        this.values = new Object[this.capacity];
+    }
+
+    public Iterable<K> keys() {
+        List<K> keys = new ArrayList<>(this.count);
+
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.isOccupied(i)) {
+                keys.add(this.keyAt(i));
+            }
+        }
+
+        return keys;
+    }
+
+    public Iterable<V> values() {
+        List<V> values = new ArrayList<>(this.count);
+
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.isOccupied(i)) {
+                values.add(this.valueAt(i));
+            }
+        }
+
+        return values;
+    }
+
+    // Spread the same way as HashTable: linear probing clusters badly on hash codes that differ only in
+    // their upper bits.
+    private int findSlotNumber(Object key) {
+        return (TreeBucket.spread(key) & Integer.MAX_VALUE) % this.capacity;
+    }
+
+    private int findIndex(K key) {
+        int index = this.findSlotNumber(key);
+
+        for (int probes = 0; probes < this.capacity; probes++) {
+            Object current = this.keys[index];
+
+            if (current == null) {
+                return -1;
+            }
+
+            if (current != TOMBSTONE && current.equals(key)) {
+                return index;
+            }
+
+            index = this.nextIndex(index);
+        }
+
+        return -1;
+    }
+
+    // Returns the first reusable slot for a new key, or -(index + 1) if the key is already present.
+    private int findInsertIndex(K key) {
+        int index = this.findSlotNumber(key);
+        int firstTombstone = -1;
+
+        for (int probes = 0; probes < this.capacity; probes++) {
+            Object current = this.keys[index];
+
+            if (current == null) {
+                return firstTombstone >= 0 ? firstTombstone : index;
+            }
+
+            if (current == TOMBSTONE) {
+                if (firstTombstone < 0) {
+                    firstTombstone = index;
+                }
+            } else if (current.equals(key)) {
+                return -index - 1;
+            }
+
+            index = this.nextIndex(index);
+        }
+
+        return firstTombstone;
+    }
+
+    private void insertAt(int index, K key, V value) {
+        if (this.keys[index] == TOMBSTONE) {
+            this.tombstones--;
+        }
+
+        this.keys[index] = key;
+        this.values[index] = value;
+        this.count++;
+    }
+
+    private int nextIndex(int index) {
+        return index + 1 == this.capacity ? 0 : index + 1;
+    }
+
+    private void growIfNeeded() {
+        if (((double) this.count + this.tombstones + 1) / this.capacity > LOAD_FACTOR) {
+            if (((double) this.count + 1) / this.capacity > LOAD_FACTOR / 2) {
+                this.rehash(this.capacity * 2);
+            } else {
+                this.rehash(this.capacity);
+            }
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+
+        this.keys = new Object[newCapacity];
+        this.values = new Object[newCapacity];
+        this.capacity = newCapacity;
+        this.tombstones = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null && key != TOMBSTONE) {
+                int index = this.findSlotNumber(key);
+                while (this.keys[index] != null) {
+                    index = this.nextIndex(index);
+                }
+                this.keys[index] = key;
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private boolean isOccupied(int index) {
+        Object key = this.keys[index];
+        return key != null && key != TOMBSTONE;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int index) {
+        return (K) this.keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) this.values[index];
+    }
+
+    @Override
+    public Iterator<KeyValue<K, V>> iterator() {
+        return new ProbeIterator();
+    }
+
+    private class ProbeIterator implements Iterator<KeyValue<K, V>> {
+        private int index;
+
+        ProbeIterator() {
+            this.index = this.advance(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < capacity;
+        }
+
+        @Override
+        public KeyValue<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Empty hash table");
+            }
+
+            KeyValue<K, V> pair = new SlotEntry(this.index);
+            this.index = this.advance(this.index + 1);
+            return pair;
+        }
+
+        private int advance(int from) {
+            while (from < capacity && !isOccupied(from)) {
+                from++;
+            }
+            return from;
+        }
+    }
+
+    // The table keeps no pair objects, so find and the iterator hand out this view instead. Like the pairs
+    // HashTable returns, it reads and writes the value stored in the table. It follows its key across
+    // rehashes and detaches, keeping the last value it saw, once the key is removed.
+    private class SlotEntry extends KeyValue<K, V> {
+        private int index;
+        // False while KeyValue's constructor runs, so its setValue call is not written back.
+        private boolean attached;
+
+        SlotEntry(int index) {
+            super(keyAt(index), valueAt(index));
+            this.index = index;
+            this.attached = true;
+        }
+
+        @Override
+        public V getValue() {
+            if (this.locate()) {
+                super.setValue(valueAt(this.index));
+            }
+            return super.getValue();
+        }
+
+        @Override
+        public void setValue(V value) {
+            super.setValue(value);
+            if (this.locate()) {
+                values[this.index] = value;
+            }
+        }
+
+        private boolean locate() {
+            if (!this.attached) {
+                return false;
+            }
+
+            if (this.index >= keys.length || keys[this.index] != this.getKey()) {
+                this.index = findIndex(this.getKey());
+                this.attached = this.index >= 0;
+            }
+            return this.attached;
+        }
+    }
+}
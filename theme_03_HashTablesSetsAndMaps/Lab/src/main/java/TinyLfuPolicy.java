@@ -0,0 +1,162 @@
+// W-TinyLFU: new entries land in a small LRU window; entries leaving the window must beat the main
+// space's LRU victim on estimated frequency to be admitted. The main space is a segmented LRU where a
+// second access promotes an entry from probation to protected.
+public class TinyLfuPolicy<K, V> implements EvictionPolicy<K, V> {
+
+    private final static int WINDOW = 0;
+    private final static int PROBATION = 1;
+    private final static int PROTECTED = 2;
+
+    private final EntryList<K, V> window = new EntryList<>();
+    private final EntryList<K, V> probation = new EntryList<>();
+    private final EntryList<K, V> protectedEntries = new EntryList<>();
+
+    private final int windowMaximum;
+    private final int protectedMaximum;
+
+    private final FrequencySketch sketch;
+
+    // The entry most recently pushed out of the window; it has to win admission against the probation victim.
+    private CacheEntry<K, V> candidate;
+
+    public TinyLfuPolicy(int maximumSize) {
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (maximumSize - this.windowMaximum) * 80 / 100;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    @Override
+    public void recordInsert(CacheEntry<K, V> entry) {
+        this.sketch.increment(entry.hash);
+        entry.segment = WINDOW;
+        this.window.addFirst(entry);
+
+        if (this.window.size() > this.windowMaximum) {
+            CacheEntry<K, V> overflow = this.window.last();
+            this.window.remove(overflow);
+            overflow.segment = PROBATION;
+            this.probation.addFirst(overflow);
+            this.candidate = overflow;
+        }
+    }
+
+    @Override
+    public void recordAccess(CacheEntry<K, V> entry) {
+        this.sketch.increment(entry.hash);
+
+        if (entry.segment == WINDOW) {
+            this.window.moveToFirst(entry);
+        } else if (entry.segment == PROTECTED) {
+            this.protectedEntries.moveToFirst(entry);
+        } else {
+            if (entry == this.candidate) {
+                this.candidate = null;
+            }
+
+            this.probation.remove(entry);
+            entry.segment = PROTECTED;
+            this.protectedEntries.addFirst(entry);
+
+            if (this.protectedEntries.size() > this.protectedMaximum) {
+                CacheEntry<K, V> demoted = this.protectedEntries.last();
+                this.protectedEntries.remove(demoted);
+                demoted.segment = PROBATION;
+                this.probation.addFirst(demoted);
+            }
+        }
+    }
+
+    @Override
+    public void recordRemoval(CacheEntry<K, V> entry) {
+        if (entry == this.candidate) {
+            this.candidate = null;
+        }
+
+        this.segmentOf(entry).remove(entry);
+    }
+
+    @Override
+    public CacheEntry<K, V> selectVictim() {
+        CacheEntry<K, V> candidate = this.candidate;
+
+        CacheEntry<K, V> victim = this.probation.last();
+        if (victim == null || victim == candidate) {
+            victim = this.protectedEntries.last();
+        }
+        if (victim == null) {
+            return candidate != null ? candidate : this.window.last();
+        }
+        if (candidate == null) {
+            return victim;
+        }
+
+        return this.sketch.frequency(candidate.hash) > this.sketch.frequency(victim.hash) ? victim : candidate;
+    }
+
+    private EntryList<K, V> segmentOf(CacheEntry<K, V> entry) {
+        if (entry.segment == WINDOW) {
+            return this.window;
+        }
+        return entry.segment == PROTECTED ? this.protectedEntries : this.probation;
+    }
+
+    // Count-min sketch with four rows. Counters are halved after sampleSize increments so old
+    // popularity fades.
+    private static class FrequencySketch {
+        private final static int[] SEEDS = {0x97CB3127, 0xB7D1E5F3, 0x5F5E1283, 0x8E6D4A61};
+        private final static int MAXIMUM_COUNT = 15;
+
+        private final int[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int width = 16;
+            while (width < maximumSize) {
+                width <<= 1;
+            }
+
+            this.counters = new int[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(maximumSize, 1);
+        }
+
+        int frequency(int hash) {
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, this.counters[row][this.indexOf(hash, row)]);
+            }
+            return frequency;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = this.indexOf(hash, row);
+                if (this.counters[row][index] < MAXIMUM_COUNT) {
+                    this.counters[row][index]++;
+                    added = true;
+                }
+            }
+
+            if (added && ++this.additions == this.sampleSize) {
+                this.reset();
+            }
+        }
+
+        private void reset() {
+            for (int[] row : this.counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>>= 1;
+                }
+            }
+            this.additions /= 2;
+        }
+
+        private int indexOf(int hash, int row) {
+            int mixed = hash * SEEDS[row];
+            return (mixed ^ (mixed >>> 17)) & this.mask;
+        }
+    }
+}
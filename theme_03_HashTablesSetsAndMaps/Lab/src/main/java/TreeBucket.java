@@ -0,0 +1,332 @@
+import java.util.*;
+
+// AVL tree (same shape as the AVL from theme 01) used by HashTable for slots whose chains grew too long.
+// Entries are ordered by spread hash, then by class name, then by compareTo for Comparable keys.
+// Keys that tie on all three (same hash, same non-Comparable class) share one node.
+class TreeBucket<K, V> extends AbstractCollection<KeyValue<K, V>> {
+
+    private Node<K, V> root;
+    private int size;
+
+    private boolean removed;
+
+    TreeBucket(Collection<KeyValue<K, V>> pairs) {
+        for (KeyValue<K, V> pair : pairs) {
+            this.add(pair);
+        }
+    }
+
+    static int spread(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    public KeyValue<K, V> find(K key) {
+        return this.find(key, null);
+    }
+
+    // Adds the number of keys compared to probes[0] unless probes is null: one per visited node plus the
+    // scan of the matching node.
+    KeyValue<K, V> find(K key, int[] probes) {
+        int hash = spread(key);
+        int compared = 0;
+        KeyValue<K, V> found = null;
+        Node<K, V> node = this.root;
+
+        while (node != null) {
+            compared++;
+            int cmp = compare(hash, key, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                node = node.right;
+            } else {
+                for (KeyValue<K, V> pair : node.entries) {
+                    if (pair.getKey().equals(key)) {
+                        found = pair;
+                        break;
+                    }
+                    compared++;
+                }
+                break;
+            }
+        }
+
+        if (probes != null) {
+            probes[0] += compared;
+        }
+        return found;
+    }
+
+    @Override
+    public boolean add(KeyValue<K, V> pair) {
+        this.root = this.insert(this.root, spread(pair.getKey()), pair);
+        this.size++;
+        return true;
+    }
+
+    public boolean removeKey(K key) {
+        this.removed = false;
+        this.root = this.delete(this.root, spread(key), key);
+
+        if (this.removed) {
+            this.size--;
+        }
+
+        return this.removed;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        if (!(o instanceof KeyValue)) {
+            return false;
+        }
+        return this.removeKey(((KeyValue<K, V>) o).getKey());
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    // Walks the tree in place with a stack of the ancestors still to visit. Removing the last entry of a node
+    // may rotate the tree, so the stack is then rebuilt by seeking the first node after the removed one.
+    @Override
+    public Iterator<KeyValue<K, V>> iterator() {
+        return new Iterator<KeyValue<K, V>>() {
+            private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+            private Node<K, V> current;
+            private Iterator<KeyValue<K, V>> entries;
+            private KeyValue<K, V> last;
+
+            {
+                this.pushLeft(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return (this.entries != null && this.entries.hasNext()) || !this.stack.isEmpty();
+            }
+
+            @Override
+            public KeyValue<K, V> next() {
+                if (this.entries == null || !this.entries.hasNext()) {
+                    if (this.stack.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+                    this.current = this.stack.pop();
+                    this.entries = this.current.entries.iterator();
+                    this.pushLeft(this.current.right);
+                }
+
+                this.last = this.entries.next();
+                return this.last;
+            }
+
+            @Override
+            public void remove() {
+                if (this.last == null) {
+                    throw new IllegalStateException();
+                }
+
+                if (this.current.entries.size() > 1) {
+                    this.entries.remove();
+                    size--;
+                } else {
+                    int hash = spread(this.last.getKey());
+                    removeKey(this.last.getKey());
+
+                    this.stack.clear();
+                    this.entries = null;
+                    Node<K, V> node = root;
+                    while (node != null) {
+                        if (compare(hash, this.last.getKey(), node) < 0) {
+                            this.stack.push(node);
+                            node = node.left;
+                        } else {
+                            node = node.right;
+                        }
+                    }
+                }
+
+                this.last = null;
+            }
+
+            private void pushLeft(Node<K, V> node) {
+                while (node != null) {
+                    this.stack.push(node);
+                    node = node.left;
+                }
+            }
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(int hash, Object key, Node<?, ?> node) {
+        int cmp = Integer.compare(hash, node.hash);
+        if (cmp != 0) {
+            return cmp;
+        }
+
+        Object other = node.entries.getFirst().getKey();
+        if (key.getClass() != other.getClass()) {
+            return key.getClass().getName().compareTo(other.getClass().getName());
+        }
+
+        if (key instanceof Comparable) {
+            return ((Comparable) key).compareTo(other);
+        }
+
+        return 0;
+    }
+
+    private Node<K, V> insert(Node<K, V> node, int hash, KeyValue<K, V> pair) {
+        if (node == null) {
+            return new Node<>(hash, pair);
+        }
+
+        int cmp = compare(hash, pair.getKey(), node);
+        if (cmp < 0) {
+            node.left = this.insert(node.left, hash, pair);
+        } else if (cmp > 0) {
+            node.right = this.insert(node.right, hash, pair);
+        } else {
+            node.entries.addLast(pair);
+            return node;
+        }
+
+        this.updateHeight(node);
+
+        return this.balance(node);
+    }
+
+    private Node<K, V> delete(Node<K, V> node, int hash, K key) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = compare(hash, key, node);
+        if (cmp < 0) {
+            node.left = this.delete(node.left, hash, key);
+        } else if (cmp > 0) {
+            node.right = this.delete(node.right, hash, key);
+        } else {
+            Iterator<KeyValue<K, V>> iterator = node.entries.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getKey().equals(key)) {
+                    iterator.remove();
+                    this.removed = true;
+                    break;
+                }
+            }
+
+            if (!node.entries.isEmpty()) {
+                return node;
+            }
+
+            if (node.left == null) {
+                return node.right;
+            }
+
+            if (node.right == null) {
+                return node.left;
+            }
+
+            Node<K, V> rightMin = this.getMin(node.right);
+
+            rightMin.right = this.deleteMin(node.right);
+            rightMin.left = node.left;
+
+            node = rightMin;
+        }
+
+        this.updateHeight(node);
+        return this.balance(node);
+    }
+
+    private Node<K, V> getMin(Node<K, V> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private Node<K, V> deleteMin(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+
+        node.left = this.deleteMin(node.left);
+
+        this.updateHeight(node);
+        return this.balance(node);
+    }
+
+    private Node<K, V> rotateLeft(Node<K, V> node) {
+        Node<K, V> right = node.right;
+        node.right = right.left;
+        right.left = node;
+
+        this.updateHeight(node);
+        this.updateHeight(right);
+
+        return right;
+    }
+
+    private Node<K, V> rotateRight(Node<K, V> node) {
+        Node<K, V> left = node.left;
+        node.left = left.right;
+        left.right = node;
+
+        this.updateHeight(node);
+        this.updateHeight(left);
+
+        return left;
+    }
+
+    private Node<K, V> balance(Node<K, V> node) {
+        int balance = this.balanceFactor(node);
+
+        if (balance < -1) {
+            if (this.balanceFactor(node.right) > 0) {
+                node.right = this.rotateRight(node.right);
+            }
+            return this.rotateLeft(node);
+        } else if (balance > 1) {
+            if (this.balanceFactor(node.left) < 0) {
+                node.left = this.rotateLeft(node.left);
+            }
+            return this.rotateRight(node);
+        }
+
+        return node;
+    }
+
+    private int balanceFactor(Node<K, V> node) {
+        return this.height(node.left) - this.height(node.right);
+    }
+
+    private int height(Node<K, V> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private void updateHeight(Node<K, V> node) {
+        node.height = Math.max(this.height(node.left), this.height(node.right)) + 1;
+    }
+
+    private static class Node<K, V> {
+        final int hash;
+        final LinkedList<KeyValue<K, V>> entries;
+        Node<K, V> left;
+        Node<K, V> right;
+        int height;
+
+        Node(int hash, KeyValue<K, V> pair) {
+            this.hash = hash;
+            this.entries = new LinkedList<>();
+            this.entries.add(pair);
+            this.height = 1;
+        }
+    }
+}
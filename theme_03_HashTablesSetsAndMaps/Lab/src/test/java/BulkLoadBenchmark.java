@@ -0,0 +1,51 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkLoadBenchmark {
+
+    private static final int ENTRIES = 5_000_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        List<KeyValue<Integer, Integer>> pairs = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            pairs.add(new KeyValue<>(i * 31, i));
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d, %,d entries%n", round, ENTRIES);
+
+            long start = System.nanoTime();
+            HashTable<Integer, Integer> table = new HashTable<>();
+            for (KeyValue<Integer, Integer> pair : pairs) {
+                table.add(pair.getKey(), pair.getValue());
+            }
+            report("add from INITIAL_CAPACITY", table, System.nanoTime() - start);
+
+            table = null;
+            System.gc();
+
+            start = System.nanoTime();
+            table = HashTable.withExpectedSize(ENTRIES);
+            for (KeyValue<Integer, Integer> pair : pairs) {
+                table.add(pair.getKey(), pair.getValue());
+            }
+            report("withExpectedSize + add", table, System.nanoTime() - start);
+
+            table = null;
+            System.gc();
+
+            start = System.nanoTime();
+            table = new HashTable<>();
+            table.addAll(pairs);
+            report("addAll", table, System.nanoTime() - start);
+
+            table = null;
+            System.gc();
+        }
+    }
+
+    private static void report(String name, HashTable<Integer, Integer> table, long nanos) {
+        System.out.printf("  %-28s %8.0f ms (capacity %,d)%n", name, nanos / 1e6, table.capacity());
+    }
+}
@@ -0,0 +1,198 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class CacheTableTests {
+
+    @Test
+    public void Lru_OverMaximumSize_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        CacheTable<String, Integer> cache = new CacheTable<String, Integer>(2, new LruPolicy<>());
+        cache.add("Peter", 1);
+        cache.add("Maria", 2);
+
+        // Act
+        cache.get("Peter");
+        cache.add("George", 3);
+
+        // Assert
+        Assert.assertEquals(2, cache.size());
+        Assert.assertTrue(cache.containsKey("Peter"));
+        Assert.assertFalse(cache.containsKey("Maria"));
+        Assert.assertTrue(cache.containsKey("George"));
+        Assert.assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void Lfu_OverMaximumSize_ShouldEvictLeastFrequentlyUsed() {
+        // Arrange
+        CacheTable<String, Integer> cache = new CacheTable<String, Integer>(2, new LfuPolicy<>());
+        cache.add("Peter", 1);
+        cache.add("Maria", 2);
+
+        // Act
+        cache.get("Peter");
+        cache.get("Peter");
+        cache.get("Maria");
+        cache.add("George", 3);
+        cache.add("Kiril", 4);
+
+        // Assert
+        Assert.assertEquals(2, cache.size());
+        Assert.assertTrue(cache.containsKey("Peter"));
+        Assert.assertTrue(cache.containsKey("Kiril"));
+        Assert.assertEquals(2, cache.evictionCount());
+    }
+
+    @Test
+    public void TinyLfu_ScanOfOneTimeKeys_ShouldKeepHotKeys() {
+        // Arrange
+        int maximumSize = 100;
+        CacheTable<Integer, Integer> cache = new CacheTable<Integer, Integer>(maximumSize, new TinyLfuPolicy<>(maximumSize));
+        for (int round = 0; round < 5; round++) {
+            for (int key = 0; key < 50; key++) {
+                if (cache.find(key) == null) {
+                    cache.add(key, key);
+                }
+            }
+        }
+
+        // Act
+        for (int key = 1000; key < 11000; key++) {
+            cache.addOrReplace(key, key);
+            if (key % 4 == 0) {
+                int hotKey = (key / 4) % 50;
+                if (cache.find(hotKey) == null) {
+                    cache.add(hotKey, hotKey);
+                }
+            }
+        }
+
+        // Assert
+        Assert.assertEquals(maximumSize, cache.size());
+        int hotKeysKept = 0;
+        for (int key = 0; key < 50; key++) {
+            if (cache.containsKey(key)) {
+                hotKeysKept++;
+            }
+        }
+        Assert.assertTrue(hotKeysKept >= 45);
+    }
+
+    @Test
+    public void ExpireAfterWrite_ExpiredEntry_ShouldMiss() {
+        // Arrange
+        long[] now = {0L};
+        CacheTable<String, Integer> cache = new CacheTable<String, Integer>(
+                10, new LruPolicy<>(), Duration.ofNanos(100), () -> now[0]);
+        cache.add("Peter", 1);
+
+        // Act
+        now[0] = 50;
+        KeyValue<String, Integer> fresh = cache.find("Peter");
+        now[0] = 100;
+        KeyValue<String, Integer> expired = cache.find("Peter");
+
+        // Assert
+        Assert.assertNotNull(fresh);
+        Assert.assertNull(expired);
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.hitCount());
+        Assert.assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    public void AddOrReplace_Remove_Iterate_ShouldWorkCorrectly() {
+        // Arrange
+        CacheTable<Integer, Integer> cache = new CacheTable<Integer, Integer>(1000, new LruPolicy<>());
+
+        // Act
+        for (int i = 0; i < 500; i++) {
+            Assert.assertTrue(cache.addOrReplace(i, i));
+        }
+        Assert.assertFalse(cache.addOrReplace(7, 70));
+        for (int i = 0; i < 500; i += 2) {
+            Assert.assertTrue(cache.remove(i));
+        }
+
+        // Assert
+        Assert.assertEquals(250, cache.size());
+        Assert.assertEquals(70, (int) cache.get(7));
+        int counter = 0;
+        for (KeyValue<Integer, Integer> pair : cache) {
+            Assert.assertEquals(1, pair.getKey() % 2);
+            counter++;
+        }
+        Assert.assertEquals(250, counter);
+    }
+
+    @Test
+    public void ExpireAfterWrite_OverMaximumSize_ShouldDropExpiredBeforeLiveEntries() {
+        // Arrange
+        long[] now = {0L};
+        CacheTable<String, Integer> cache = new CacheTable<String, Integer>(
+                2, new LruPolicy<>(), Duration.ofNanos(100), () -> now[0]);
+        cache.add("Peter", 1);
+        now[0] = 50;
+        cache.add("Maria", 2);
+        cache.get("Peter");
+
+        // Act
+        now[0] = 120;
+        cache.add("George", 3);
+
+        // Assert
+        Assert.assertEquals(2, cache.size());
+        Assert.assertFalse(cache.containsKey("Peter"));
+        Assert.assertTrue(cache.containsKey("Maria"));
+        Assert.assertTrue(cache.containsKey("George"));
+        Assert.assertEquals(0, cache.evictionCount());
+    }
+
+    @Test
+    public void Iterate_WithExpiredEntries_ShouldSkipThem() {
+        // Arrange
+        long[] now = {0L};
+        CacheTable<Integer, Integer> cache = new CacheTable<Integer, Integer>(
+                100, new LruPolicy<>(), Duration.ofNanos(100), () -> now[0]);
+        for (int i = 0; i < 20; i++) {
+            now[0] = i < 10 ? 0 : 50;
+            cache.add(i, i);
+        }
+
+        // Act
+        now[0] = 120;
+        int counter = 0;
+        for (KeyValue<Integer, Integer> pair : cache) {
+            Assert.assertTrue(pair.getKey() >= 10);
+            counter++;
+        }
+
+        // Assert
+        Assert.assertEquals(10, counter);
+    }
+
+    @Test
+    public void Find_SetValue_ShouldWriteThroughAndRefreshEntry() {
+        // Arrange
+        long[] now = {0L};
+        CacheTable<String, Integer> cache = new CacheTable<String, Integer>(
+                2, new LruPolicy<>(), Duration.ofNanos(100), () -> now[0]);
+        cache.add("Peter", 1);
+        cache.add("Maria", 2);
+
+        // Act
+        now[0] = 80;
+        KeyValue<String, Integer> pair = cache.find("Peter");
+        pair.setValue(10);
+        now[0] = 150;
+        cache.add("George", 3);
+
+        // Assert
+        Assert.assertFalse(pair instanceof CacheEntry);
+        Assert.assertEquals(10, (int) cache.get("Peter"));
+        Assert.assertFalse(cache.containsKey("Maria"));
+        Assert.assertTrue(cache.containsKey("George"));
+    }
+}
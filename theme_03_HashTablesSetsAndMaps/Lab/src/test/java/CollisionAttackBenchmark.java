@@ -0,0 +1,74 @@
+public class CollisionAttackBenchmark {
+
+    private static final int KEYS = 20_000;
+    private static final int ROUNDS = 5;
+
+    private static volatile long sink;
+
+    // Every key lands in the same slot, as with a crafted set of colliding Strings.
+    private static class AttackKey implements Comparable<AttackKey> {
+        private final int id;
+
+        AttackKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AttackKey && ((AttackKey) o).id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public int compareTo(AttackKey other) {
+            return Integer.compare(this.id, other.id);
+        }
+    }
+
+    public static void main(String[] args) {
+        AttackKey[] keys = new AttackKey[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = new AttackKey(i);
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d, %d colliding keys%n", round, KEYS);
+
+            long start = System.nanoTime();
+            HashTable<AttackKey, Integer> treeified = new HashTable<>();
+            for (AttackKey key : keys) {
+                treeified.add(key, key.id);
+            }
+            long hits = 0;
+            for (AttackKey key : keys) {
+                if (treeified.containsKey(key)) {
+                    hits++;
+                }
+            }
+            report("HashTable (treeified)", System.nanoTime() - start);
+            sink += hits;
+
+            start = System.nanoTime();
+            OpenAddressingHashTable<AttackKey, Integer> probing = new OpenAddressingHashTable<>();
+            for (AttackKey key : keys) {
+                probing.add(key, key.id);
+            }
+            hits = 0;
+            for (AttackKey key : keys) {
+                if (probing.containsKey(key)) {
+                    hits++;
+                }
+            }
+            report("OpenAddressingHashTable", System.nanoTime() - start);
+            sink += hits;
+        }
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.printf("  %-24s %8.1f ms for add + lookup of every key%n", name, nanos / 1e6);
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConcurrentHashTableBenchmark {
+
+    private static final int KEYS = 1 << 20;
+    private static final int WRITE_PERCENT = 10;
+    private static final long DURATION_MILLIS = 2000;
+
+    private static volatile long sink;
+
+    private interface Table {
+        boolean contains(int key);
+
+        void put(int key);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            System.out.printf("%d threads, %d%% writes%n", threads, WRITE_PERCENT);
+
+            ConcurrentHashTable<Integer, Integer> concurrentTable = new ConcurrentHashTable<>();
+            run("ConcurrentHashTable", threads, new Table() {
+                public boolean contains(int key) {
+                    return concurrentTable.containsKey(key);
+                }
+
+                public void put(int key) {
+                    concurrentTable.addOrReplace(key, key);
+                }
+            });
+
+            Map<Integer, Integer> concurrentMap = new ConcurrentHashMap<>();
+            run("ConcurrentHashMap", threads, new Table() {
+                public boolean contains(int key) {
+                    return concurrentMap.containsKey(key);
+                }
+
+                public void put(int key) {
+                    concurrentMap.put(key, key);
+                }
+            });
+
+            // HashTable is not a java.util.Map, so a single monitor stands in for Collections.synchronizedMap.
+            HashTable<Integer, Integer> hashTable = new HashTable<>();
+            run("synchronized HashTable", threads, new Table() {
+                public boolean contains(int key) {
+                    synchronized (hashTable) {
+                        return hashTable.containsKey(key);
+                    }
+                }
+
+                public void put(int key) {
+                    synchronized (hashTable) {
+                        hashTable.addOrReplace(key, key);
+                    }
+                }
+            });
+        }
+    }
+
+    private static void run(String name, int threads, Table table) throws InterruptedException {
+        for (int key = 0; key < KEYS; key += 2) {
+            table.put(key);
+        }
+
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long local = 0;
+                    long hits = 0;
+                    start.await();
+                    while ((local & 1023) != 0 || System.currentTimeMillis() < deadline) {
+                        int key = random.nextInt(KEYS);
+                        if (random.nextInt(100) < WRITE_PERCENT) {
+                            table.put(key);
+                        } else if (table.contains(key)) {
+                            hits++;
+                        }
+                        local++;
+                    }
+                    operations.add(local);
+                    sink += hits;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        start.countDown();
+        done.await();
+
+        System.out.printf("  %-24s %,14.0f ops/s%n", name, operations.sum() / (DURATION_MILLIS / 1000.0));
+    }
+}
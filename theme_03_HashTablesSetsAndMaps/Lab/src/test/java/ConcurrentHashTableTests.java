@@ -0,0 +1,119 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ConcurrentHashTableTests {
+
+    @Test
+    public void Add_Find_Remove_SingleThread_ShouldWorkCorrectly() {
+        // Arrange
+        ConcurrentHashTable<String, Integer> hashTable = new ConcurrentHashTable<String, Integer>(1);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            hashTable.add("key" + i, i);
+        }
+        hashTable.addOrReplace("key5", 500);
+        boolean removed = hashTable.remove("key7");
+
+        // Assert
+        Assert.assertTrue(removed);
+        Assert.assertEquals(999, hashTable.size());
+        Assert.assertEquals(500, (int) hashTable.get("key5"));
+        Assert.assertNull(hashTable.find("key7"));
+        Assert.assertFalse(hashTable.remove("key7"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void Add_Duplicates_ShouldThrowException() {
+        ConcurrentHashTable<String, String> hashTable = new ConcurrentHashTable<String, String>();
+        hashTable.add("peter", "1");
+        hashTable.add("peter", "2");
+    }
+
+    @Test
+    public void Add_Remove_FromManyThreads_ShouldKeepEveryKey() throws Exception {
+        // Arrange
+        ConcurrentHashTable<Integer, Integer> hashTable = new ConcurrentHashTable<Integer, Integer>(2, 2);
+        int threads = 8;
+        int perThread = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    hashTable.add(base + i, base + i);
+                    Assert.assertTrue(hashTable.containsKey(base + i));
+                    if (i % 2 == 0) {
+                        Assert.assertTrue(hashTable.remove(base + i));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        Assert.assertEquals(threads * perThread / 2, hashTable.size());
+        for (int key = 0; key < threads * perThread; key++) {
+            Assert.assertEquals(key % 2 == 1, hashTable.containsKey(key));
+        }
+
+        int counter = 0;
+        for (KeyValue<Integer, Integer> pair : hashTable) {
+            counter++;
+        }
+        Assert.assertEquals(threads * perThread / 2, counter);
+    }
+
+    @Test
+    public void Add_ManyWritersCrossingResizeThreshold_ShouldKeepEveryKey() throws Exception {
+        // Arrange
+        int threads = 16;
+        int perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (int round = 0; round < 300; round++) {
+                ConcurrentHashTable<Integer, Integer> hashTable = new ConcurrentHashTable<Integer, Integer>(1, 1);
+                CyclicBarrier start = new CyclicBarrier(threads);
+
+                // Act
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int base = t * perThread;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < perThread; i++) {
+                            hashTable.add(base + i, base + i);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+
+                // Assert
+                Assert.assertEquals(threads * perThread, hashTable.size());
+                for (int key = 0; key < threads * perThread; key++) {
+                    Assert.assertEquals(key, (int) hashTable.get(key));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
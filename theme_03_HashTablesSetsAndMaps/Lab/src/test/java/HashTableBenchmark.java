@@ -0,0 +1,87 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class HashTableBenchmark {
+
+    private static final int ENTRIES = 1_000_000;
+    private static final int LOOKUPS = 10_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int[] keys = new Random(42).ints(ENTRIES).toArray();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d%n", round);
+            benchmarkChained(keys);
+            benchmarkOpenAddressing(keys);
+            benchmarkInsertLatency("HashTable", keys, new HashTable<>(16, false));
+            benchmarkInsertLatency("HashTable (incremental)", keys, new HashTable<>(16, true));
+        }
+    }
+
+    private static void benchmarkInsertLatency(String name, int[] keys, HashTable<Integer, Integer> table) {
+        long[] latencies = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            table.addOrReplace(keys[i], keys[i]);
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("  %-24s insert p50 %6d ns  p99 %6d ns  p99.99 %9d ns  max %10d ns%n",
+                name,
+                latencies[latencies.length / 2],
+                latencies[(int) (latencies.length * 0.99)],
+                latencies[(int) (latencies.length * 0.9999)],
+                latencies[latencies.length - 1]);
+    }
+
+    private static void benchmarkChained(int[] keys) {
+        long before = usedMemory();
+        HashTable<Integer, Integer> table = new HashTable<>();
+        for (int key : keys) {
+            table.addOrReplace(key, key);
+        }
+        long bytes = usedMemory() - before;
+
+        long start = System.nanoTime();
+        long hits = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (table.containsKey(keys[i % keys.length])) {
+                hits++;
+            }
+        }
+        report("HashTable", table.size(), bytes, System.nanoTime() - start, hits);
+    }
+
+    private static void benchmarkOpenAddressing(int[] keys) {
+        long before = usedMemory();
+        OpenAddressingHashTable<Integer, Integer> table = new OpenAddressingHashTable<>();
+        for (int key : keys) {
+            table.addOrReplace(key, key);
+        }
+        long bytes = usedMemory() - before;
+
+        long start = System.nanoTime();
+        long hits = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (table.containsKey(keys[i % keys.length])) {
+                hits++;
+            }
+        }
+        report("OpenAddressingHashTable", table.size(), bytes, System.nanoTime() - start, hits);
+    }
+
+    private static void report(String name, int size, long bytes, long nanos, long hits) {
+        System.out.printf("  %-24s %,12.0f lookups/s %8.1f bytes/entry (hits %d)%n",
+                name, LOOKUPS / (nanos / 1e9), (double) bytes / size, hits);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,9 +1,20 @@
 import org.junit.Assert;
 import org.junit.Test;
 
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.StreamSupport;
 
 public class HashTableTests {
 
@@ -273,4 +284,362 @@ public class HashTableTests {
 
         Assert.assertEquals(0, counter);
     }
+
+    @Test
+    public void IncrementalRehash_AddFindRemove_DuringMigration_ShouldWorkCorrectly() {
+        // Arrange
+        HashTable<Integer, Integer> hashTable = new HashTable<Integer, Integer>(4, true);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            hashTable.add(i, i);
+            Assert.assertTrue(hashTable.containsKey(i / 2));
+        }
+
+        for (int i = 0; i < 1000; i += 2) {
+            Assert.assertFalse(hashTable.addOrReplace(i, -i));
+        }
+
+        for (int i = 1; i < 1000; i += 2) {
+            Assert.assertTrue(hashTable.remove(i));
+        }
+
+        // Assert
+        Assert.assertEquals(500, hashTable.size());
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) {
+                Assert.assertEquals(-i, (int) hashTable.get(i));
+            } else {
+                Assert.assertNull(hashTable.find(i));
+            }
+        }
+
+        int counter = 0;
+        for (KeyValue<Integer, Integer> pair : hashTable) {
+            counter++;
+        }
+        Assert.assertEquals(500, counter);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void IncrementalRehash_Add_DuplicateInOldSlots_ShouldThrowException() {
+        // Arrange
+        HashTable<Integer, Integer> hashTable = new HashTable<Integer, Integer>(64, true);
+        for (int i = 0; i < 52; i++) {
+            hashTable.add(i, i);
+        }
+
+        // Act
+        hashTable.add(40, 40);
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void Iterator_AddDuringIteration_ShouldThrowException() {
+        // Arrange
+        HashTable<String, Integer> hashTable = new HashTable<String, Integer>();
+        hashTable.add("Peter", 1);
+        hashTable.add("Maria", 2);
+
+        // Act
+        for (KeyValue<String, Integer> pair : hashTable) {
+            hashTable.add(pair.getKey() + "2", pair.getValue());
+        }
+    }
+
+    @Test
+    public void Keys_Values_ShouldBeLiveViews() {
+        // Arrange
+        HashTable<String, Integer> hashTable = new HashTable<String, Integer>();
+        Collection<String> keys = hashTable.keys();
+        Collection<Integer> values = hashTable.values();
+
+        // Act
+        hashTable.add("Peter", 1);
+        hashTable.add("Maria", 2);
+
+        // Assert
+        Assert.assertEquals(2, keys.size());
+        Assert.assertTrue(keys.contains("Maria"));
+        Assert.assertTrue(values.contains(1));
+        Assert.assertEquals(2, hashTable.entries().size());
+    }
+
+    @Test
+    public void Iterator_Remove_ShouldRemoveFromTable() {
+        // Arrange
+        HashTable<Integer, Integer> hashTable = new HashTable<Integer, Integer>(4, true);
+        for (int i = 0; i < 100; i++) {
+            hashTable.add(i, i);
+        }
+
+        // Act
+        Iterator<Integer> iterator = hashTable.keys().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        // Assert
+        Assert.assertEquals(50, hashTable.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i % 2 == 1, hashTable.containsKey(i));
+        }
+    }
+
+    @Test
+    public void Spliterator_ParallelStream_ShouldVisitEveryElementOnce() {
+        // Arrange
+        HashTable<Integer, Integer> hashTable = new HashTable<Integer, Integer>(4, true);
+        for (int i = 0; i < 10000; i++) {
+            hashTable.add(i, i);
+        }
+
+        // Act
+        long sum = StreamSupport.stream(hashTable.spliterator(), true)
+                .mapToLong(KeyValue::getValue)
+                .sum();
+
+        // Assert
+        Assert.assertEquals(10000L * 9999 / 2, sum);
+    }
+
+    @Test
+    public void CollidingComparableKeys_AddFindRemove_ShouldWorkCorrectly() {
+        // Arrange
+        HashTable<CollidingKey, Integer> hashTable = new HashTable<CollidingKey, Integer>();
+        int count = 2000;
+
+        // Act
+        for (int i = 0; i < count; i++) {
+            hashTable.add(new CollidingKey(i), i);
+        }
+        for (int i = 0; i < count; i += 2) {
+            Assert.assertTrue(hashTable.remove(new CollidingKey(i)));
+        }
+
+        // Assert
+        Assert.assertEquals(count / 2, hashTable.size());
+        for (int i = 0; i < count; i++) {
+            KeyValue<CollidingKey, Integer> pair = hashTable.find(new CollidingKey(i));
+            if (i % 2 == 0) {
+                Assert.assertNull(pair);
+            } else {
+                Assert.assertEquals(i, (int) pair.getValue());
+            }
+        }
+
+        int counter = 0;
+        for (KeyValue<CollidingKey, Integer> pair : hashTable) {
+            counter++;
+        }
+        Assert.assertEquals(count / 2, counter);
+    }
+
+    @Test
+    public void CollidingNonComparableKeys_AddOrReplace_ShouldWorkCorrectly() {
+        // Arrange
+        HashTable<Object, Integer> hashTable = new HashTable<Object, Integer>(128);
+        List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            keys.add(new Object() {
+                @Override
+                public int hashCode() {
+                    return 42;
+                }
+            });
+            keys.add(new CollidingKey(i));
+        }
+
+        // Act
+        for (Object key : keys) {
+            Assert.assertTrue(hashTable.addOrReplace(key, 1));
+        }
+        for (Object key : keys) {
+            Assert.assertFalse(hashTable.addOrReplace(key, 2));
+        }
+        for (int i = 0; i < keys.size(); i += 3) {
+            Assert.assertTrue(hashTable.remove(keys.get(i)));
+        }
+
+        // Assert
+        for (int i = 0; i < keys.size(); i++) {
+            Assert.assertEquals(i % 3 != 0, hashTable.containsKey(keys.get(i)));
+        }
+        Assert.assertEquals(66, hashTable.size());
+    }
+
+    @Test
+    public void CollidingKeys_IteratorRemove_ShouldVisitEveryKeyOnceAndRemoveIt() {
+        // Arrange
+        HashTable<Object, Integer> hashTable = new HashTable<Object, Integer>(128);
+        for (int i = 0; i < 300; i++) {
+            Object key = i % 3 == 0 ? new Object() {
+                @Override
+                public int hashCode() {
+                    return 42;
+                }
+            } : new CollidingKey(i);
+            hashTable.add(key, i);
+        }
+
+        // Act
+        Set<Integer> visited = new HashSet<>();
+        Iterator<KeyValue<Object, Integer>> iterator = hashTable.iterator();
+        while (iterator.hasNext()) {
+            int value = iterator.next().getValue();
+            Assert.assertTrue(visited.add(value));
+            if (value % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        // Assert
+        Assert.assertEquals(300, visited.size());
+        Assert.assertEquals(150, hashTable.size());
+        for (KeyValue<Object, Integer> pair : hashTable) {
+            Assert.assertEquals(1, pair.getValue() % 2);
+        }
+    }
+
+    @Test
+    public void WithExpectedSize_AddExpectedElements_ShouldNotGrow() {
+        // Arrange
+        HashTable<Integer, Integer> hashTable = HashTable.withExpectedSize(1000);
+        int capacity = hashTable.capacity();
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            hashTable.add(i, i);
+        }
+
+        // Assert
+        Assert.assertEquals(capacity, hashTable.capacity());
+        Assert.assertEquals(1000, hashTable.size());
+    }
+
+    @Test
+    public void AddAll_PutAll_ShouldGrowOnceAndKeepEveryElement() {
+        // Arrange
+        List<KeyValue<String, Integer>> pairs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            pairs.add(new KeyValue<String, Integer>("key" + i, i));
+        }
+        HashTable<String, Integer> other = new HashTable<String, Integer>();
+        other.add("key5", 500);
+        other.add("extra", -1);
+
+        // Act
+        HashTable<String, Integer> hashTable = new HashTable<String, Integer>();
+        hashTable.addAll(pairs);
+        hashTable.putAll(other);
+
+        // Assert
+        Assert.assertEquals(1001, hashTable.size());
+        Assert.assertEquals(500, (int) hashTable.get("key5"));
+        Assert.assertEquals(-1, (int) hashTable.get("extra"));
+        Assert.assertEquals(999, (int) hashTable.get("key999"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void AddAll_ExistingKey_ShouldThrowException() {
+        HashTable<String, Integer> hashTable = new HashTable<String, Integer>();
+        hashTable.add("Peter", 1);
+
+        List<KeyValue<String, Integer>> pairs = new ArrayList<>();
+        pairs.add(new KeyValue<String, Integer>("Peter", 2));
+        hashTable.addAll(pairs);
+    }
+
+    @Test
+    public void Statistics_Enabled_ShouldCountFindsProbesAndResizes() {
+        // Arrange
+        HashTable<String, Integer> hashTable = new HashTable<String, Integer>(2);
+        hashTable.enableStatistics();
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            hashTable.add("key" + i, i);
+        }
+        for (int i = 0; i < 150; i++) {
+            hashTable.find("key" + i);
+        }
+        HashTableStatistics statistics = hashTable.statistics();
+
+        // Assert
+        Assert.assertEquals(100, statistics.getHits());
+        Assert.assertEquals(50, statistics.getMisses());
+        Assert.assertTrue(statistics.getAverageProbes() > 0);
+        Assert.assertTrue(statistics.getMaxProbes() >= 1);
+        Assert.assertEquals(6, statistics.getResizeCount());
+        Assert.assertEquals(hashTable.capacity(), statistics.getCapacity());
+        Assert.assertTrue(statistics.getLoadFactor() <= statistics.getMaxLoadFactor());
+
+        int slots = 0;
+        int pairs = 0;
+        int[] histogram = statistics.getChainLengthHistogram();
+        for (int length = 0; length < histogram.length; length++) {
+            slots += histogram[length];
+            pairs += length * histogram[length];
+        }
+        Assert.assertEquals(hashTable.capacity(), slots);
+        Assert.assertEquals(100, pairs);
+    }
+
+    @Test
+    public void Statistics_Disabled_ShouldOnlyReportShape() {
+        // Arrange
+        HashTable<String, Integer> hashTable = new HashTable<String, Integer>();
+        hashTable.add("Peter", 1);
+
+        // Act
+        hashTable.find("Peter");
+        HashTableStatistics statistics = hashTable.statistics();
+
+        // Assert
+        Assert.assertEquals(0, statistics.getHits());
+        Assert.assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    public void RegisterMBean_ShouldExposeStatistics() throws Exception {
+        // Arrange
+        HashTable<String, Integer> hashTable = new HashTable<String, Integer>();
+        hashTable.add("Peter", 1);
+        ObjectName name = hashTable.registerMBean("tests-" + System.nanoTime());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        // Act
+        server.setAttribute(name, new Attribute("StatisticsEnabled", true));
+        hashTable.find("Peter");
+        CompositeData statistics = (CompositeData) server.getAttribute(name, "Statistics");
+        server.unregisterMBean(name);
+
+        // Assert
+        Assert.assertEquals(1L, statistics.get("hits"));
+        Assert.assertEquals(1, statistics.get("size"));
+    }
+
+    private static class CollidingKey implements Comparable<CollidingKey> {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public int compareTo(CollidingKey other) {
+            return Integer.compare(this.id, other.id);
+        }
+    }
 }
@@ -0,0 +1,124 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedHashTableTests {
+
+    @Test
+    public void Add_Reopen_ShouldKeepEveryElement() throws IOException {
+        // Arrange
+        Path file = Files.createTempFile("mapped-hash-table", ".bin");
+        Files.delete(file);
+        int count = 5000;
+
+        // Act
+        try (MappedHashTable hashTable = MappedHashTable.open(file, 2)) {
+            for (int i = 0; i < count; i++) {
+                hashTable.add("key" + i, bytes("value" + i));
+            }
+            for (int i = 0; i < count; i += 2) {
+                Assert.assertTrue(hashTable.remove("key" + i));
+            }
+        }
+
+        // Assert
+        try (MappedHashTable hashTable = MappedHashTable.open(file)) {
+            Assert.assertEquals(count / 2, hashTable.size());
+            for (int i = 0; i < count; i++) {
+                Assert.assertEquals(i % 2 == 1, hashTable.containsKey("key" + i));
+            }
+            Assert.assertArrayEquals(bytes("value4999"), hashTable.get("key4999"));
+
+            int counter = 0;
+            for (KeyValue<String, byte[]> pair : hashTable) {
+                Assert.assertArrayEquals(bytes("value" + pair.getKey().substring(3)), pair.getValue());
+                counter++;
+            }
+            Assert.assertEquals(count / 2, counter);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void AddOrReplace_DifferentLengths_ShouldReturnLatestValue() throws IOException {
+        // Arrange
+        Path file = Files.createTempFile("mapped-hash-table", ".bin");
+        Files.delete(file);
+
+        try (MappedHashTable hashTable = MappedHashTable.open(file)) {
+            // Act
+            Assert.assertTrue(hashTable.addOrReplace("Peter", bytes("abc")));
+            Assert.assertFalse(hashTable.addOrReplace("Peter", bytes("xyz")));
+            Assert.assertFalse(hashTable.addOrReplace("Peter", bytes("longer value")));
+
+            // Assert
+            Assert.assertEquals(1, hashTable.size());
+            Assert.assertArrayEquals(bytes("longer value"), hashTable.get("Peter"));
+            Assert.assertNull(hashTable.find("Maria"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void Add_Duplicates_ShouldThrowException() throws IOException {
+        Path file = Files.createTempFile("mapped-hash-table", ".bin");
+        Files.delete(file);
+
+        try (MappedHashTable hashTable = MappedHashTable.open(file)) {
+            hashTable.add("peter", bytes("1"));
+            hashTable.add("peter", bytes("2"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void AddRemove_Churn_ShouldNotGrowFileWithoutBound() throws IOException {
+        // Arrange
+        Path file = Files.createTempFile("mapped-hash-table", ".bin");
+        Files.delete(file);
+        byte[] value = new byte[100];
+
+        // Act
+        try (MappedHashTable hashTable = MappedHashTable.open(file, 64)) {
+            for (int i = 0; i < 100; i++) {
+                hashTable.add("stable" + i, bytes("value" + i));
+            }
+            for (int i = 0; i < 200000; i++) {
+                hashTable.add("key" + i, value);
+                if (i >= 10) {
+                    Assert.assertTrue(hashTable.remove("key" + (i - 10)));
+                }
+                hashTable.addOrReplace("stable" + (i % 100), i % 2 == 0 ? value : bytes("value" + (i % 100)));
+            }
+            for (int i = 0; i < 100; i++) {
+                hashTable.addOrReplace("stable" + i, bytes("value" + i));
+            }
+        }
+
+        // Assert
+        try (MappedHashTable hashTable = MappedHashTable.open(file)) {
+            Assert.assertTrue(Files.size(file) < 1024 * 1024);
+            Assert.assertEquals(110, hashTable.size());
+            for (int i = 0; i < 100; i++) {
+                Assert.assertArrayEquals(bytes("value" + i), hashTable.get("stable" + i));
+            }
+            for (int i = 199990; i < 200000; i++) {
+                Assert.assertArrayEquals(value, hashTable.get("key" + i));
+            }
+            Assert.assertFalse(hashTable.containsKey("key199989"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
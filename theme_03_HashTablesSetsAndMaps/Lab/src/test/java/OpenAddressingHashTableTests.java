@@ -0,0 +1,143 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OpenAddressingHashTableTests {
+
+    @Test
+    public void Remove_ThenAdd_ReusesTombstones_ShouldWorkCorrectly() {
+        // Arrange
+        OpenAddressingHashTable<Integer, Integer> hashTable = new OpenAddressingHashTable<Integer, Integer>(16);
+
+        // Act
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 8; i++) {
+                hashTable.add(round * 8 + i, i);
+            }
+            for (int i = 0; i < 8; i++) {
+                Assert.assertTrue(hashTable.remove(round * 8 + i));
+            }
+        }
+        hashTable.add(42, 42);
+
+        // Assert
+        Assert.assertEquals(1, hashTable.size());
+        Assert.assertEquals(16, hashTable.capacity());
+        Assert.assertEquals(42, (int) hashTable.get(42));
+        Assert.assertFalse(hashTable.containsKey(7));
+    }
+
+    @Test
+    public void AddOrReplace_AfterRemove_ShouldNotDuplicateKey() {
+        // Arrange
+        OpenAddressingHashTable<Integer, String> hashTable = new OpenAddressingHashTable<Integer, String>(16);
+        hashTable.add(1, "one");
+        hashTable.add(17, "seventeen");
+
+        // Act
+        hashTable.remove(1);
+        boolean added = hashTable.addOrReplace(17, "SEVENTEEN");
+
+        // Assert
+        Assert.assertFalse(added);
+        Assert.assertEquals(1, hashTable.size());
+        Assert.assertEquals("SEVENTEEN", hashTable.get(17));
+    }
+
+    @Test
+    public void Find_SetValue_ShouldWriteThroughToTable() {
+        // Arrange
+        OpenAddressingHashTable<String, Integer> hashTable = new OpenAddressingHashTable<String, Integer>(2);
+        hashTable.add("Peter", 5);
+        KeyValue<String, Integer> pair = hashTable.find("Peter");
+
+        // Act
+        pair.setValue(6);
+        for (int i = 0; i < 100; i++) {
+            hashTable.add("key" + i, i);
+        }
+        pair.setValue(7);
+        hashTable.addOrReplace("Peter", 8);
+
+        // Assert
+        Assert.assertEquals(8, (int) pair.getValue());
+        Assert.assertEquals(8, (int) hashTable.get("Peter"));
+        pair.setValue(9);
+        Assert.assertEquals(9, (int) hashTable.get("Peter"));
+    }
+
+    @Test
+    public void Iterator_SetValue_ShouldWriteThroughToTable() {
+        // Arrange
+        OpenAddressingHashTable<String, Integer> hashTable = new OpenAddressingHashTable<String, Integer>();
+        for (int i = 0; i < 10; i++) {
+            hashTable.add("key" + i, i);
+        }
+
+        // Act
+        for (KeyValue<String, Integer> pair : hashTable) {
+            pair.setValue(pair.getValue() * 10);
+        }
+
+        // Assert
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i * 10, (int) hashTable.get("key" + i));
+        }
+    }
+
+    @Test
+    public void Find_SetValue_AfterRemove_ShouldNotChangeTable() {
+        // Arrange
+        OpenAddressingHashTable<String, Integer> hashTable = new OpenAddressingHashTable<String, Integer>();
+        hashTable.add("Peter", 5);
+        KeyValue<String, Integer> pair = hashTable.find("Peter");
+
+        // Act
+        hashTable.remove("Peter");
+        pair.setValue(6);
+
+        // Assert
+        Assert.assertFalse(hashTable.containsKey("Peter"));
+        Assert.assertEquals(6, (int) pair.getValue());
+    }
+
+    @Test
+    public void Remove_InProbeRunAcrossTableEnd_ShouldKeepLaterKeysReachable() {
+        // Arrange
+        OpenAddressingHashTable<Integer, Integer> hashTable = new OpenAddressingHashTable<Integer, Integer>(16);
+        hashTable.add(15, 15);
+        hashTable.add(31, 31);
+        hashTable.add(47, 47);
+
+        // Act
+        hashTable.remove(15);
+        boolean added = hashTable.addOrReplace(47, 470);
+
+        // Assert
+        Assert.assertFalse(added);
+        Assert.assertEquals(2, hashTable.size());
+        Assert.assertEquals(16, hashTable.capacity());
+        Assert.assertEquals(31, (int) hashTable.get(31));
+        Assert.assertEquals(470, (int) hashTable.get(47));
+        Assert.assertEquals(3, hashTable.probeLength(47));
+    }
+
+    @Test
+    public void Add_KeysDifferingInUpperBits_ShouldKeepProbeRunsShort() {
+        // Arrange
+        OpenAddressingHashTable<Integer, Integer> hashTable = new OpenAddressingHashTable<Integer, Integer>(1 << 12);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            hashTable.add(i << 16, i);
+        }
+
+        // Assert
+        int longestProbe = 0;
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, (int) hashTable.get(i << 16));
+            longestProbe = Math.max(longestProbe, hashTable.probeLength(i << 16));
+        }
+        Assert.assertTrue(longestProbe <= 4);
+        Assert.assertEquals(1 << 12, hashTable.capacity());
+    }
+}
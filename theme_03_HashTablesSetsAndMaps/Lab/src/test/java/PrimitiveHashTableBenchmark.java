@@ -0,0 +1,58 @@
+import java.util.Random;
+
+public class PrimitiveHashTableBenchmark {
+
+    private static final int ENTRIES = 1_000_000;
+    private static final int LOOKUPS = 20_000_000;
+    private static final int ROUNDS = 5;
+
+    private static volatile long sink;
+
+    public static void main(String[] args) {
+        int[] keys = new Random(42).ints(ENTRIES).toArray();
+        String value = "value";
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d%n", round);
+
+            long start = System.nanoTime();
+            HashTable<Integer, String> boxed = new HashTable<>();
+            for (int key : keys) {
+                boxed.addOrReplace(key, value);
+            }
+            long putNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long hits = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (boxed.find(keys[i % ENTRIES]) != null) {
+                    hits++;
+                }
+            }
+            report("HashTable<Integer, V>", putNanos, System.nanoTime() - start);
+            sink += hits;
+
+            start = System.nanoTime();
+            IntObjectHashTable<String> primitive = new IntObjectHashTable<>();
+            for (int key : keys) {
+                primitive.put(key, value);
+            }
+            putNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            hits = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (primitive.getOrDefault(keys[i % ENTRIES], null) != null) {
+                    hits++;
+                }
+            }
+            report("IntObjectHashTable<V>", putNanos, System.nanoTime() - start);
+            sink += hits;
+        }
+    }
+
+    private static void report(String name, long putNanos, long getNanos) {
+        System.out.printf("  %-24s put %,12.0f ops/s   get %,14.0f ops/s%n",
+                name, ENTRIES / (putNanos / 1e9), LOOKUPS / (getNanos / 1e9));
+    }
+}
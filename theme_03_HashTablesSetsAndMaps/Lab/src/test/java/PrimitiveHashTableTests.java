@@ -0,0 +1,103 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PrimitiveHashTableTests {
+
+    @Test
+    public void IntObject_RandomOperations_ShouldMatchHashMap() {
+        // Arrange
+        IntObjectHashTable<String> hashTable = new IntObjectHashTable<String>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        // Act & Assert
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextBoolean()) {
+                Assert.assertEquals(!expected.containsKey(key), hashTable.put(key, "v" + i));
+                expected.put(key, "v" + i);
+            } else {
+                Assert.assertEquals(expected.remove(key) != null, hashTable.remove(key));
+            }
+            Assert.assertEquals(expected.size(), hashTable.size());
+        }
+
+        for (int key = -1000; key < 1000; key++) {
+            Assert.assertEquals(expected.get(key), hashTable.getOrDefault(key, null));
+        }
+
+        int[] visited = new int[1];
+        hashTable.forEach((key, value) -> {
+            Assert.assertEquals(expected.get(key), value);
+            visited[0]++;
+        });
+        Assert.assertEquals(expected.size(), visited[0]);
+    }
+
+    @Test
+    public void IntInt_ZeroKey_ShouldBeStoredLikeAnyOtherKey() {
+        // Arrange
+        IntIntHashTable hashTable = new IntIntHashTable(2);
+
+        // Act
+        hashTable.add(0, 10);
+        hashTable.add(1, 11);
+        hashTable.add(-1, 9);
+
+        // Assert
+        Assert.assertEquals(3, hashTable.size());
+        Assert.assertEquals(10, hashTable.get(0));
+        Assert.assertEquals(9, hashTable.get(-1));
+        Assert.assertTrue(hashTable.remove(0));
+        Assert.assertFalse(hashTable.containsKey(0));
+        Assert.assertEquals(-5, hashTable.getOrDefault(0, -5));
+        Assert.assertEquals(2, hashTable.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void IntInt_Get_NonExistingElement_ShouldThrowException() {
+        IntIntHashTable hashTable = new IntIntHashTable();
+        hashTable.add(5, 5);
+        hashTable.get(6);
+    }
+
+    @Test
+    public void LongObject_AddRemove_ManyElements_ShouldWorkCorrectly() {
+        // Arrange
+        LongObjectHashTable<Long> hashTable = new LongObjectHashTable<Long>(1);
+
+        // Act
+        for (long i = 0; i < 5000; i++) {
+            hashTable.add(i << 32, i);
+        }
+        for (long i = 0; i < 5000; i += 2) {
+            Assert.assertTrue(hashTable.remove(i << 32));
+        }
+
+        // Assert
+        Assert.assertEquals(2500, hashTable.size());
+        for (long i = 0; i < 5000; i++) {
+            Assert.assertEquals(i % 2 == 1, hashTable.containsKey(i << 32));
+        }
+        Assert.assertEquals(4999L, (long) hashTable.get(4999L << 32));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void IntObject_CapacityAboveMaximum_ShouldThrowException() {
+        new IntObjectHashTable<String>((1 << 30) + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void IntInt_CapacityAboveMaximum_ShouldThrowException() {
+        new IntIntHashTable(Integer.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void LongObject_CapacityAboveMaximum_ShouldThrowException() {
+        new LongObjectHashTable<String>(Integer.MAX_VALUE);
+    }
+}